@@ -0,0 +1,69 @@
+package nextextz.text.pack.lexer;
+
+/**
+ * Contains buffer of symbols with fix size. Symbols are kept without boxing.
+ */
+public class FixSizeSymbolBuffer {
+    private final int[] buffer;
+
+    private int head;
+    private int count;
+
+    /**
+     * Creates new buffer.
+     *
+     * @param size size.
+     */
+    public FixSizeSymbolBuffer(int size) {
+        this.buffer = new int[size];
+    }
+
+    /**
+     * Adds symbol.
+     *
+     * @param symbol symbol.
+     */
+    public void add(int symbol) {
+        if (buffer.length == 0) {
+            return;
+        }
+        if (count < buffer.length) {
+            buffer[(head + count) % buffer.length] = symbol;
+            count++;
+        } else {
+            buffer[head] = symbol;
+            head = (head + 1) % buffer.length;
+        }
+    }
+
+    /**
+     * Clears.
+     */
+    public void reset() {
+        head = 0;
+        count = 0;
+    }
+
+    /**
+     * Compares buffer and symbols.
+     *
+     * @param symbols symbols for comparing.
+     * @return true, if equal.
+     */
+    public boolean match(char[] symbols) {
+        boolean result = true;
+        if (symbols == null) {
+            result = false;
+        } else if (symbols.length != count) {
+            result = false;
+        } else {
+            for (int i = 0; i < count; i++) {
+                if (buffer[(head + i) % buffer.length] != symbols[i]) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,279 @@
+package nextextz.text.pack.lexer;
+
+import nextextz.text.pack.text.Text;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Iterates attributes of tag. Attributes are parsed, when 'next' is called, and they are ranges of text, so names can
+ * be compared without creating strings. Values can be quoted by ' or ", quotes are not part of value.
+ */
+public final class HtmlAttributes {
+    private static final char START_SYMBOL = '<';
+    private static final char FINISH_SYMBOL = '>';
+    private static final char SLASH = '/';
+    private static final char EQUALS = '=';
+    private static final char QUOTE = '\'';
+    private static final char DOUBLE_QUOTE = '"';
+
+    private Text text;
+    private long start;
+    private long finish;
+
+    private long position;
+    private long nameStart = -1;
+    private long nameFinish = -1;
+    private long valueStart = -1;
+    private long valueFinish = -1;
+
+    /**
+     * Creates attributes of tag.
+     *
+     * @param text   text (can not be null).
+     * @param start  start of tag.
+     * @param finish finish of tag (exclusive).
+     */
+    HtmlAttributes(Text text, long start, long finish) {
+        reset(text, start, finish);
+    }
+
+    /**
+     * Moves to the next attribute.
+     *
+     * @return true, if there is attribute.
+     */
+    public boolean next() {
+        if (position < 0) {
+            position = skipTagName();
+        }
+        position = skipSeparators(position);
+        final int symbol = read(position);
+        boolean result = false;
+        if (symbol != Text.END && symbol != FINISH_SYMBOL && symbol != START_SYMBOL) {
+            nameStart = position;
+            long i = position + 1;
+            for (int s = read(i); !isNameFinish(s) && s != EQUALS; s = read(i)) {
+                i++;
+            }
+            nameFinish = i;
+            valueStart = -1;
+            valueFinish = -1;
+            i = skipSpaces(i);
+            if (read(i) == EQUALS) {
+                i = skipSpaces(i + 1);
+                i = readValue(i);
+            }
+            position = i;
+            result = true;
+        }
+        if (!result) {
+            nameStart = -1;
+            nameFinish = -1;
+            valueStart = -1;
+            valueFinish = -1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns to the first attribute ('next' has to be called).
+     */
+    public void reset() {
+        position = -1;
+        nameStart = -1;
+        nameFinish = -1;
+        valueStart = -1;
+        valueFinish = -1;
+    }
+
+    /**
+     * Returns start of name in text.
+     *
+     * @return start.
+     */
+    public long getNameStart() {
+        checkAttribute();
+        return nameStart;
+    }
+
+    /**
+     * Returns finish of name in text (exclusive).
+     *
+     * @return finish.
+     */
+    public long getNameFinish() {
+        checkAttribute();
+        return nameFinish;
+    }
+
+    /**
+     * Checks value.
+     *
+     * @return true, if attribute has value ('name=value').
+     */
+    public boolean hasValue() {
+        checkAttribute();
+        return valueStart != -1;
+    }
+
+    /**
+     * Returns start of value in text.
+     *
+     * @return start or -1, if there is no value.
+     */
+    public long getValueStart() {
+        checkAttribute();
+        return valueStart;
+    }
+
+    /**
+     * Returns finish of value in text (exclusive).
+     *
+     * @return finish or -1, if there is no value.
+     */
+    public long getValueFinish() {
+        checkAttribute();
+        return valueFinish;
+    }
+
+    /**
+     * Compares name with value. Case of ASCII letters is ignored. Strings are not created.
+     *
+     * @param name name (can not be null).
+     * @return true, if names are equal.
+     */
+    public boolean isName(CharSequence name) {
+        checkNotNull(name);
+        checkAttribute();
+        boolean result = nameFinish - nameStart == name.length();
+        for (int i = 0; result && i < name.length(); i++) {
+            result = toLowerCase(read(nameStart + i)) == toLowerCase(name.charAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns name.
+     *
+     * @return name.
+     */
+    public String getName() {
+        checkAttribute();
+        return text.subSequence(nameStart, nameFinish).toString();
+    }
+
+    /**
+     * Returns value.
+     *
+     * @return value or null, if there is no value.
+     */
+    public String getValue() {
+        checkAttribute();
+        String result = null;
+        if (valueStart != -1) {
+            result = text.subSequence(valueStart, valueFinish).toString();
+        }
+        return result;
+    }
+
+    /**
+     * Returns value, in which character references are decoded (see 'HtmlEntities').
+     *
+     * @return value or null, if there is no value.
+     */
+    public String getDecodedValue() {
+        final String value = getValue();
+        return value == null ? null : HtmlEntities.decode(value);
+    }
+
+    /**
+     * Sets tag.
+     *
+     * @param text   text (can not be null).
+     * @param start  start of tag.
+     * @param finish finish of tag (exclusive).
+     */
+    void reset(Text text, long start, long finish) {
+        checkNotNull(text);
+        this.text = text;
+        this.start = start;
+        this.finish = finish;
+        reset();
+    }
+
+    private long skipTagName() {
+        long i = start;
+        if (read(i) == START_SYMBOL) {
+            i = skipSpaces(i + 1);
+            if (read(i) == SLASH) {
+                i = skipSpaces(i + 1);
+            }
+            for (int s = read(i); !isNameFinish(s); s = read(i)) {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private long readValue(long index) {
+        long i = index;
+        final int symbol = read(i);
+        if (symbol == QUOTE || symbol == DOUBLE_QUOTE) {
+            valueStart = i + 1;
+            i++;
+            for (int s = read(i); s != Text.END && s != symbol; s = read(i)) {
+                i++;
+            }
+            valueFinish = i;
+            if (read(i) == symbol) {
+                i++;
+            }
+        } else {
+            valueStart = i;
+            for (int s = read(i); s != Text.END && !isSpace(s) && s != FINISH_SYMBOL && s != START_SYMBOL;
+                 s = read(i)) {
+                i++;
+            }
+            valueFinish = i;
+        }
+        return i;
+    }
+
+    private long skipSeparators(long index) {
+        long i = index;
+        for (int s = read(i); isSpace(s) || s == SLASH; s = read(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private long skipSpaces(long index) {
+        long i = index;
+        while (isSpace(read(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private int read(long index) {
+        return index < finish ? text.read(index) : Text.END;
+    }
+
+    private void checkAttribute() {
+        checkState(nameStart != -1, "There is no attribute");
+    }
+
+    private static boolean isNameFinish(int symbol) {
+        return symbol == Text.END || isSpace(symbol) || symbol == FINISH_SYMBOL || symbol == SLASH
+                || symbol == START_SYMBOL;
+    }
+
+    private static boolean isSpace(int symbol) {
+        return symbol == ' ' || symbol == '\t' || symbol == '\n' || symbol == '\r' || symbol == '\f';
+    }
+
+    private static int toLowerCase(int symbol) {
+        return symbol >= 'A' && symbol <= 'Z' ? symbol + ('a' - 'A') : symbol;
+    }
+}
@@ -0,0 +1,318 @@
+package nextextz.text.pack.lexer;
+
+import nextextz.text.pack.text.EditableText;
+import nextextz.text.pack.text.TextChangeHandler;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Keeps tokens of 'EditableText' like 'HtmlLexer' and updates them after every change of text. Scanning restarts from
+ * the first token, which read changed symbols, and stops, when state of lexer (position and mode) is equal to state
+ * before old token after change; so time of update depends on size of change, not on size of text.
+ * <p/>
+ * Tokens are kept in arrays with gap at the last change. Offsets of tokens after gap are kept relative to the end of
+ * text, so they are not shifted by change. Token of script or style without closing tag depends on the end of text, so
+ * the index of the first such token is kept too.
+ */
+public class HtmlIncrementalLexer implements TextChangeHandler {
+    private static final int CAPACITY = 64;
+    private static final HtmlLexer.TokenType[] TYPES = HtmlLexer.TokenType.values();
+    private static final HtmlLexer.Mode[] MODES = HtmlLexer.Mode.values();
+    private static final HtmlTag[] TAGS = HtmlTag.values();
+    private static final char START_SYMBOL = '<';
+    private static final char SPACE = ' ';
+    private static final char SLASH = '/';
+    private static final long END_READ_FINISH = Long.MAX_VALUE / 4;
+
+    private final EditableText text;
+    private final HtmlIncrementalLexerHandler handler;
+    private final Collector collector = new Collector();
+
+    private long[] starts = new long[CAPACITY];
+    private long[] finishes = new long[CAPACITY];
+    private long[] readFinishes = new long[CAPACITY];
+    private byte[] modes = new byte[CAPACITY];
+    private byte[] types = new byte[CAPACITY];
+    private short[] tags = new short[CAPACITY];
+    private int gapStart;
+    private int gapFinish = CAPACITY;
+    private long length;
+    private int endIndex = -1;
+
+    /**
+     * Creates new lexer, which scans the whole text and handles its changes (lexer is added to handlers of text).
+     *
+     * @param text    text (can not be null).
+     * @param handler handler (can not be null).
+     */
+    public HtmlIncrementalLexer(
+            EditableText text,
+            HtmlIncrementalLexerHandler handler) {
+        checkNotNull(text);
+        checkNotNull(handler);
+
+        this.text = text;
+        this.handler = handler;
+        this.length = text.getLength();
+        final HtmlLexer lexer = new HtmlLexer(text, new HtmlLexer.Options().setCursorHandler(collector));
+        while (scan(lexer)) {
+            add();
+        }
+        text.addChangeHandler(this);
+    }
+
+    /**
+     * Returns count of tokens (without empty token).
+     *
+     * @return count.
+     */
+    public int getTokenCount() {
+        return gapStart + starts.length - gapFinish;
+    }
+
+    /**
+     * Returns token. Value of token is read from text, so it has to be taken before the next change.
+     *
+     * @param index index of token.
+     * @return token.
+     */
+    public HtmlLexer.Token getToken(int index) {
+        checkElementIndex(index, getTokenCount());
+        final int i = getIndex(index);
+        return new HtmlLexer.Token(TYPES[types[i]], text, getValue(starts, i), getValue(finishes, i), TAGS[tags[i]]);
+    }
+
+    /**
+     * Updates tokens after change of text.
+     *
+     * @param offset   offset of change.
+     * @param removed  count of removed symbols.
+     * @param inserted count of inserted symbols.
+     */
+    @Override
+    public void handle(long offset, long removed, long inserted) {
+        int index = findToken(offset);
+        while (index > 0 && getValue(readFinishes, getIndex(index - 1)) > offset) {
+            index--;
+        }
+        if (endIndex >= 0 && endIndex < index) {
+            index = endIndex;
+        }
+        final int oldEndIndex = endIndex;
+        endIndex = -1;
+        long position = 0;
+        HtmlLexer.Mode mode = HtmlLexer.Mode.MARKUP;
+        if (index < getTokenCount()) {
+            position = getValue(starts, getIndex(index));
+            mode = MODES[modes[getIndex(index)]];
+        }
+        moveGap(index);
+        final long oldLength = length;
+        length = text.getLength();
+
+        final HtmlLexer lexer = new HtmlLexer(text, new HtmlLexer.Options().setCursorHandler(collector)
+                .setCheckpoint(new HtmlLexer.Checkpoint(position, mode)));
+        int removedCount = 0;
+        int insertedCount = 0;
+        boolean isScanned = true;
+        for (; ; ) {
+            while (gapFinish < starts.length && (starts[gapFinish] + oldLength < offset + removed
+                    || starts[gapFinish] + length < lexer.getPosition())) {
+                gapFinish++;
+                removedCount++;
+            }
+            final boolean isAligned = gapFinish < starts.length && starts[gapFinish] + length == lexer.getPosition()
+                    && modes[gapFinish] == lexer.getMode().ordinal();
+            if (isAligned || !isScanned) {
+                break;
+            }
+            isScanned = scan(lexer);
+            if (isScanned) {
+                add();
+                insertedCount++;
+            }
+        }
+        if (endIndex < 0 && oldEndIndex >= 0) {
+            endIndex = oldEndIndex >= index + removedCount
+                    ? oldEndIndex - removedCount + insertedCount : findEndToken(index + insertedCount);
+        }
+        handler.handle(index, removedCount, insertedCount);
+    }
+
+    /**
+     * Scans token into collector. Token depends on symbols in range [start, readFinish): scanning of script and style
+     * looks for '/' after '&lt;' and spaces, or reads text to the end, if there is no '&lt;/'; scanning of other
+     * tokens reads one symbol after token. Token, which depends on the end of text, is changed by any change after it,
+     * so its readFinish is not shifted.
+     *
+     * @return true, if token is not empty.
+     */
+    private boolean scan(HtmlLexer lexer) {
+        collector.mode = lexer.getMode();
+        lexer.execute();
+        final boolean result = collector.type != HtmlLexer.TokenType.EMPTY;
+        if (result) {
+            final long position = lexer.getPosition();
+            collector.readFinish = position + 1;
+            if (collector.type == HtmlLexer.TokenType.SCRIPT || collector.type == HtmlLexer.TokenType.STYLE) {
+                collector.readFinish = length + 1;
+                if (text.read(position) == START_SYMBOL) {
+                    long i = position + 1;
+                    while (text.read(i) == SPACE) {
+                        i++;
+                    }
+                    if (text.read(i) == SLASH) {
+                        collector.readFinish = i + 1;
+                    }
+                }
+            }
+            if (collector.readFinish > length) {
+                collector.readFinish = END_READ_FINISH;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds token from collector before gap.
+     */
+    private void add() {
+        if (gapStart == gapFinish) {
+            grow();
+        }
+        starts[gapStart] = collector.start;
+        finishes[gapStart] = collector.finish;
+        readFinishes[gapStart] = collector.readFinish;
+        modes[gapStart] = (byte) collector.mode.ordinal();
+        types[gapStart] = (byte) collector.type.ordinal();
+        tags[gapStart] = (short) collector.tag.ordinal();
+        if (endIndex < 0 && collector.readFinish == END_READ_FINISH) {
+            endIndex = gapStart;
+        }
+        gapStart++;
+    }
+
+    /**
+     * Finds the last token, which starts before or at offset.
+     *
+     * @return index of token or 0.
+     */
+    private int findToken(long offset) {
+        int low = 0;
+        int high = getTokenCount() - 1;
+        int result = 0;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (getValue(starts, getIndex(middle)) <= offset) {
+                result = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the first token, which depends on the end of text.
+     *
+     * @return index of token or -1.
+     */
+    private int findEndToken(int from) {
+        int result = -1;
+        for (int i = from; i < getTokenCount(); i++) {
+            if (getValue(readFinishes, getIndex(i)) > length) {
+                result = i;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Moves gap before token. Offsets of moved tokens are converted.
+     */
+    private void moveGap(int index) {
+        while (gapStart > index) {
+            gapStart--;
+            gapFinish--;
+            move(gapStart, gapFinish, -length);
+        }
+        while (gapStart < index) {
+            move(gapFinish, gapStart, length);
+            gapStart++;
+            gapFinish++;
+        }
+    }
+
+    private void move(int from, int to, long shift) {
+        starts[to] = starts[from] + shift;
+        finishes[to] = finishes[from] + shift;
+        readFinishes[to] = readFinishes[from] + shift;
+        modes[to] = modes[from];
+        types[to] = types[from];
+        tags[to] = tags[from];
+    }
+
+    private int getIndex(int index) {
+        return index < gapStart ? index : index + gapFinish - gapStart;
+    }
+
+    private long getValue(long[] values, int i) {
+        return i < gapStart ? values[i] : values[i] + length;
+    }
+
+    private void grow() {
+        final int capacity = starts.length * 2;
+        final int tail = starts.length - gapFinish;
+        final int newGapFinish = capacity - tail;
+        starts = grow(starts, capacity, newGapFinish);
+        finishes = grow(finishes, capacity, newGapFinish);
+        readFinishes = grow(readFinishes, capacity, newGapFinish);
+        modes = grow(modes, capacity, newGapFinish);
+        types = grow(types, capacity, newGapFinish);
+        tags = grow(tags, capacity, newGapFinish);
+        gapFinish = newGapFinish;
+    }
+
+    private long[] grow(long[] values, int capacity, int newGapFinish) {
+        final long[] result = Arrays.copyOf(values, capacity);
+        System.arraycopy(values, gapFinish, result, newGapFinish, values.length - gapFinish);
+        return result;
+    }
+
+    private byte[] grow(byte[] values, int capacity, int newGapFinish) {
+        final byte[] result = Arrays.copyOf(values, capacity);
+        System.arraycopy(values, gapFinish, result, newGapFinish, values.length - gapFinish);
+        return result;
+    }
+
+    private short[] grow(short[] values, int capacity, int newGapFinish) {
+        final short[] result = Arrays.copyOf(values, capacity);
+        System.arraycopy(values, gapFinish, result, newGapFinish, values.length - gapFinish);
+        return result;
+    }
+
+    /**
+     * Keeps the last token of lexer.
+     */
+    private static class Collector implements HtmlLexerCursorHandler {
+        private HtmlLexer.TokenType type;
+        private long start;
+        private long finish;
+        private HtmlTag tag;
+        private HtmlLexer.Mode mode;
+        private long readFinish;
+
+        @Override
+        public void handle(HtmlLexer.Cursor cursor) {
+            type = cursor.getType();
+            start = cursor.getStart();
+            finish = cursor.getFinish();
+            tag = cursor.getTag();
+        }
+    }
+}
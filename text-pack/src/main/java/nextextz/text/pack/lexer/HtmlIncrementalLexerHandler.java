@@ -0,0 +1,16 @@
+package nextextz.text.pack.lexer;
+
+/**
+ * Handles changes of tokens of 'HtmlIncrementalLexer'.
+ */
+public interface HtmlIncrementalLexerHandler {
+    /**
+     * Handles change. Tokens in range [index, index + removed) were replaced by tokens in range
+     * [index, index + inserted); offsets of the next tokens are shifted.
+     *
+     * @param index    index of the first changed token.
+     * @param removed  count of removed tokens.
+     * @param inserted count of inserted tokens.
+     */
+    void handle(int index, int removed, int inserted);
+}
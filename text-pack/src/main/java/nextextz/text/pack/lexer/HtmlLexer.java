@@ -1,32 +1,69 @@
 package nextextz.text.pack.lexer;
 
-import nextextz.text.pack.text.SymbolProvider;
+import nextextz.text.pack.text.ByteText;
+import nextextz.text.pack.text.Factory;
 import nextextz.text.pack.text.Text;
 
-import java.util.Arrays;
-import java.util.List;
+import java.io.Serializable;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 /**
- * Extracts tokens from html.
+ * Extracts tokens from html. Lexer with max size of token splits longer tokens into fragments (see 'Fragment'), so
+ * neither values of tokens nor symbols, which are held by text, exceed that size.
  */
-public class HtmlLexer {
-    private static final Character START_SYMBOL = '<';
-    private static final Character FINISH_SYMBOL = '>';
+public class HtmlLexer implements Iterable<HtmlLexer.Token> {
+    private static final char START_SYMBOL = '<';
+    private static final char FINISH_SYMBOL = '>';
 
-    private static final Character SPACE = ' ';
-    private static final Character MINUS = '-';
-    private static final Character SLASH = '/';
+    private static final char SPACE = ' ';
+    private static final char MINUS = '-';
+
+    private static final int CHUNK_SIZE = 512;
+    private static final int TAG_NAME_CAPACITY = 16;
+    private static final long NO_MAX_TOKEN_SIZE = Long.MAX_VALUE;
 
     private static final String COMMENTS_TAG = "!--";
     private static final String SCRIPT_TAG = "script";
     private static final String STYLE_TAG = "style";
 
     private final Text text;
+    private final ByteText byteText;
     private final HtmlLexerHandler handler;
+    private final HtmlLexerCursorHandler cursorHandler;
+    private final Set<TokenType> tokenTypes;
+    private final long maxTokenSize;
+    private final int maxTagNameLength;
+
+    private final char[] chunk = new char[CHUNK_SIZE];
+    private final Cursor cursor;
+
+    private char[] tagName = new char[TAG_NAME_CAPACITY];
+    private int tagNameStart;
+    private int tagNameFinish;
+    private long tagNameOverflow;
+    private long firstStartSymbol;
+    private boolean isTagSkipped;
+    private int commentsMinusCount;
+    private long commentsFinish;
+    private long contentFinish;
+    private HtmlSpecialContentScanner specialContentScanner;
+    private TokenType fragmentType;
+    private HtmlTag fragmentTag;
+    private TokenType heldType;
+    private long heldStart;
 
     private long position;
+    private Token nextToken;
+    // State before the next token; mode is null, if the next token is not the first fragment.
+    private long nextTokenPosition;
+    private Mode nextTokenMode;
 
     private boolean isCommentsProcessing;
     private boolean isScriptProcessing;
@@ -41,167 +78,486 @@ public class HtmlLexer {
     public HtmlLexer(
             Text text,
             HtmlLexerHandler handler) {
+        this(text, new Options().setHandler(handler));
+    }
+
+    /**
+     * Creates new lexer, which is read by 'hasNext' and 'next' (or by iterator) instead of 'execute'.
+     *
+     * @param text text (can not be null).
+     */
+    public HtmlLexer(Text text) {
+        this(text, new Options());
+    }
+
+    /**
+     * Creates new lexer with options. Options are copied, so they can be changed and used for other lexers.
+     *
+     * @param text    text (can not be null).
+     * @param options options (can not be null).
+     */
+    public HtmlLexer(
+            Text text,
+            Options options) {
         checkNotNull(text);
-        checkNotNull(handler);
+        checkNotNull(options);
 
         this.text = text;
-        this.handler = handler;
+        this.maxTokenSize = options.maxTokenSize;
+        this.maxTagNameLength = (int) Math.max(TAG_NAME_CAPACITY, Math.min(maxTokenSize, Integer.MAX_VALUE));
+        this.byteText = text instanceof ByteText ? (ByteText) text : null;
+        this.tokenTypes = EnumSet.noneOf(TokenType.class);
+        this.tokenTypes.addAll(options.tokenTypes);
+        this.tokenTypes.add(TokenType.EMPTY);
+        this.handler = options.handler;
+        this.cursorHandler = options.cursorHandler;
+        this.cursor = new Cursor(text);
+        if (options.checkpoint != null) {
+            resume(options.checkpoint);
+        }
     }
 
     /**
      * Executes getting next token.
      */
     public void execute() {
-        Token result = Token.getEmpty();
-        final Character symbol = getSymbol();
-        if (symbol != null) {
-            if (isStyleProcessing()) {
-                result = getStyle();
-                finishStyleProcessing();
+        checkState(handler != null || cursorHandler != null, "Lexer has no handler");
+        scan();
+        if (handler != null) {
+            handler.handle(cursor.toToken());
+        } else {
+            cursorHandler.handle(cursor);
+        }
+    }
+
+    /**
+     * Checks next token.
+     *
+     * @return true, if there is next token (not empty).
+     */
+    public boolean hasNext() {
+        if (nextToken == null) {
+            nextTokenPosition = getPosition();
+            nextTokenMode = fragmentType == null ? getMode() : null;
+            scan();
+            nextToken = cursor.toToken();
+        }
+        return nextToken.getType() != TokenType.EMPTY;
+    }
+
+    /**
+     * Returns next token. For texts, which drop released symbols, value of token has to be taken before the next
+     * call of 'hasNext'.
+     *
+     * @return token.
+     * @throws NoSuchElementException if there is no token.
+     */
+    public Token next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Token result = nextToken;
+        nextToken = null;
+        return result;
+    }
+
+    /**
+     * Returns iterator, which reads tokens from lexer. Tokens are read once, so all iterators share position.
+     *
+     * @return iterator.
+     */
+    @Override
+    public Iterator<Token> iterator() {
+        return new Iterator<Token>() {
+            @Override
+            public boolean hasNext() {
+                return HtmlLexer.this.hasNext();
+            }
+
+            @Override
+            public Token next() {
+                return HtmlLexer.this.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Returns checkpoint before the next token, which is not passed to handler or returned by 'next'. Lexer, which is
+     * created from checkpoint, returns the same tokens as this lexer.
+     *
+     * @return checkpoint.
+     * @throws IllegalStateException if the next token is not the first fragment.
+     */
+    public Checkpoint getCheckpoint() {
+        long checkpointPosition = nextTokenPosition;
+        Mode checkpointMode = nextTokenMode;
+        if (nextToken == null) {
+            checkpointPosition = getPosition();
+            checkpointMode = fragmentType == null ? getMode() : null;
+        }
+        checkState(checkpointMode != null, "Lexer is inside of fragmented token");
+        return new Checkpoint(checkpointPosition, checkpointMode);
+    }
+
+    /**
+     * Returns position of the next token, which is not scanned.
+     *
+     * @return position.
+     */
+    long getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns mode of the next token, which is not scanned.
+     *
+     * @return mode.
+     */
+    Mode getMode() {
+        Mode result = Mode.MARKUP;
+        if (isCommentsProcessing()) {
+            result = Mode.COMMENTS;
+        } else if (isScriptProcessing()) {
+            result = Mode.SCRIPT;
+        } else if (isStyleProcessing()) {
+            result = Mode.STYLE;
+        }
+        return result;
+    }
+
+    /**
+     * Holds the last scanned token, whose scanning has read the end of growing text: the next scanning continues it
+     * from the stopped position with kept state instead of scanning it again from its start.
+     */
+    void hold() {
+        if (cursor.type != TokenType.EMPTY) {
+            heldType = cursor.type;
+            heldStart = cursor.start;
+            if (heldType == TokenType.COMMENTS) {
+                startCommentsProcessing();
+            } else if (heldType == TokenType.SCRIPT) {
+                startScriptProcessing();
+            } else if (heldType == TokenType.STYLE) {
+                startStyleProcessing();
+            }
+        }
+    }
+
+    private void resume(Checkpoint checkpoint) {
+        checkNotNull(checkpoint);
+        shiftPosition(checkpoint.position);
+        isCommentsProcessing = checkpoint.mode == Mode.COMMENTS;
+        isScriptProcessing = checkpoint.mode == Mode.SCRIPT;
+        isStyleProcessing = checkpoint.mode == Mode.STYLE;
+    }
+
+    private void scan() {
+        do {
+            scanToken();
+        } while (!tokenTypes.contains(cursor.type));
+    }
+
+    private void scanToken() {
+        text.release(getTokenStart());
+        setToken(TokenType.EMPTY, getPosition(), getPosition());
+        final int symbol = read();
+        if (symbol != Text.END || heldType != null) {
+            final long limit = getPosition() < NO_MAX_TOKEN_SIZE - maxTokenSize
+                    ? getPosition() + maxTokenSize : NO_MAX_TOKEN_SIZE;
+            if (fragmentType == TokenType.TAG || heldType == TokenType.TAG) {
+                scanTag(limit);
+            } else if (isStyleProcessing()) {
+                if (scanSpecialContent(TokenType.STYLE, limit)) {
+                    finishStyleProcessing();
+                }
             } else if (isScriptProcessing()) {
-                result = getScript();
-                finishScriptProcessing();
+                if (scanSpecialContent(TokenType.SCRIPT, limit)) {
+                    finishScriptProcessing();
+                }
             } else if (isCommentsProcessing()) {
-                result = getComments();
-                finishCommentsProcessing();
-            } else if (isTag(symbol)) {
-                result = getTag();
+                if (scanComments(limit)) {
+                    finishCommentsProcessing();
+                }
+            } else if (fragmentType == null && heldType == null && isTag(symbol)) {
+                scanTag(limit);
             } else {
-                result = getContent();
+                scanContent(limit);
             }
         }
-        handler.handle(result);
+        heldType = null;
     }
 
-    private Token getTag() {
-        final StringBuilder buffer = new StringBuilder();
-        final StringBuilder tagNameBuffer = new StringBuilder();
+    /**
+     * Returns start of the next token: start of held token or position.
+     */
+    private long getTokenStart() {
+        return heldType == null ? getPosition() : heldStart;
+    }
 
-        long firstStartSymbol = -1;
-        for (; ; ) {
-            final Character symbol = getSymbol();
-            if (symbol == null) {
-                break;
-            }
-            if (START_SYMBOL == symbol && firstStartSymbol == -1) {
-                firstStartSymbol = getPosition();
-            }
-            if (extractTagName(symbol, tagNameBuffer)) {
-                final String tagName = tagNameBuffer.toString();
-                if (COMMENTS_TAG.equals(tagName)) {
-                    startCommentsProcessing();
-                    break;
-                } else if (SCRIPT_TAG.equalsIgnoreCase(tagName)) {
-                    startScriptProcessing();
-                    moveToSymbol(FINISH_SYMBOL, buffer);
-                    makeStep();
+    /**
+     * Checks, that the next scanning starts new token, not the next fragment or held token.
+     */
+    private boolean isTokenStart() {
+        return fragmentType == null && heldType == null;
+    }
+
+    /**
+     * Scans tag. State of tag (name, the first '&lt;' and skipping after name of script or style) is kept in fields,
+     * so fragment of tag is continued from the previous one.
+     */
+    private void scanTag(long limit) {
+        final long startPosition = getTokenStart();
+        if (isTokenStart()) {
+            clearTagName();
+            firstStartSymbol = -1;
+            isTagSkipped = false;
+        }
+
+        boolean isCut = false;
+        if (isTagSkipped) {
+            isCut = moveAfterSymbol(FINISH_SYMBOL, limit);
+        } else {
+            for (; ; ) {
+                final int symbol = read();
+                if (symbol == Text.END) {
                     break;
-                } else if (STYLE_TAG.equalsIgnoreCase(tagName)) {
-                    startStyleProcessing();
-                    moveToSymbol(FINISH_SYMBOL, buffer);
+                }
+                if (START_SYMBOL == symbol && firstStartSymbol == -1) {
+                    firstStartSymbol = getPosition();
+                }
+                if (extractTagName(symbol)) {
+                    if (isTagName(COMMENTS_TAG, false)) {
+                        startCommentsProcessing();
+                        break;
+                    } else if (isTagName(SCRIPT_TAG, true)) {
+                        startScriptProcessing();
+                        isTagSkipped = true;
+                        isCut = moveAfterSymbol(FINISH_SYMBOL, limit);
+                        break;
+                    } else if (isTagName(STYLE_TAG, true)) {
+                        startStyleProcessing();
+                        isTagSkipped = true;
+                        isCut = moveAfterSymbol(FINISH_SYMBOL, limit);
+                        break;
+                    }
+                }
+                if (FINISH_SYMBOL == symbol || (firstStartSymbol != getPosition() && START_SYMBOL == symbol)) {
                     makeStep();
                     break;
                 }
-            }
-            buffer.append(symbol);
-            if (FINISH_SYMBOL == symbol || (firstStartSymbol != getPosition() && START_SYMBOL == symbol)) {
                 makeStep();
-                break;
+                if (getPosition() >= limit && read() != Text.END && !isCommentsStart(read())) {
+                    isCut = true;
+                    break;
+                }
             }
-            makeStep();
         }
-        return Token.createTag(buffer.toString());
+        setFragment(TokenType.TAG, startPosition, getPosition(), isCut);
     }
 
-    private Token getContent() {
-        final StringBuilder buffer = new StringBuilder();
-        for (; ; ) {
-            final Character symbol = getSymbol();
-            if (symbol == null) {
-                break;
-            }
-            if (isTag(symbol)) {
-                break;
+    /**
+     * Scans content. Finish of content in bytes is found once for all fragments.
+     */
+    private void scanContent(long limit) {
+        final long startPosition = getTokenStart();
+        if (byteText != null) {
+            if (isTokenStart()) {
+                final long index = byteText.find(getPosition(), START_SYMBOL, FINISH_SYMBOL);
+                contentFinish = index == -1 ? byteText.getLength() : index;
             }
-            buffer.append(symbol);
-            makeStep();
+            shiftPosition(Math.min(contentFinish, limit));
+        } else {
+            moveToTag(limit);
+        }
+        boolean isCut = false;
+        if (getPosition() >= limit) {
+            final int symbol = read();
+            isCut = symbol != Text.END && !isTag(symbol);
         }
-        return Token.createContent(buffer.toString());
+        setFragment(TokenType.CONTENT, startPosition, getPosition(), isCut);
     }
 
-    private Token getComments() {
-        final StringBuilder buffer = new StringBuilder();
-        for (; ; ) {
-            final Character symbol = getSymbol();
-            if (symbol == null) {
+    /**
+     * Scans comments. Comments finish before '--' and the next symbol, so count of the last minus symbols is kept,
+     * and fragment is not cut before them. Finish is kept, while spaces after comments are skipped.
+     *
+     * @return true, if comments finish.
+     */
+    private boolean scanComments(long limit) {
+        final long startPosition = getTokenStart();
+        if (isTokenStart()) {
+            commentsMinusCount = 0;
+            commentsFinish = -1;
+        }
+        long finishPosition = commentsFinish;
+        boolean isCut = false;
+        while (commentsFinish < 0) {
+            final int symbol = read();
+            finishPosition = getPosition();
+            if (symbol == Text.END) {
                 break;
             }
 
-            if (buffer.length() >= 2) {
-                final char symbolBeforeLast = buffer.charAt(buffer.length() - 2);
-                final char symbolLast = buffer.charAt(buffer.length() - 1);
-                if (MINUS == symbolBeforeLast && MINUS == symbolLast) {
-                    buffer.deleteCharAt(buffer.length() - 1);
-                    buffer.deleteCharAt(buffer.length() - 1);
-                    skipSpaces();
-                    break;
-                }
+            if (commentsMinusCount >= 2) {
+                commentsFinish = getPosition() - 2;
+                finishPosition = commentsFinish;
+                break;
+            }
+
+            if (getPosition() >= limit && getPosition() - commentsMinusCount > startPosition
+                    && !isCommentsFinish(getPosition() - commentsMinusCount)) {
+                shiftPosition(getPosition() - commentsMinusCount);
+                commentsMinusCount = 0;
+                finishPosition = getPosition();
+                isCut = true;
+                break;
             }
 
-            buffer.append(symbol);
+            commentsMinusCount = MINUS == symbol ? commentsMinusCount + 1 : 0;
             makeStep();
         }
-        return Token.createComments(buffer.toString());
+        if (commentsFinish >= 0) {
+            skipSpaces();
+        }
+        setFragment(TokenType.COMMENTS, startPosition, finishPosition, isCut);
+        return !isCut;
     }
 
-    private Token getScript() {
-        return Token.createScript(getContentWithSpecialContent());
+    /**
+     * Checks, that comments finish at position: '--' and a symbol follow.
+     */
+    private boolean isCommentsFinish(long index) {
+        return MINUS == read(index) && MINUS == read(index + 1) && read(index + 2) != Text.END;
     }
 
-    private Token getStyle() {
-        return Token.createStyle(getContentWithSpecialContent());
+    /**
+     * Scans script or style. Scanner is kept for the next fragment or for held token.
+     *
+     * @return true, if script or style finishes.
+     */
+    private boolean scanSpecialContent(TokenType type, long limit) {
+        final long startPosition = getTokenStart();
+        if (isTokenStart()) {
+            specialContentScanner = new HtmlSpecialContentScanner(text, startPosition);
+        }
+        shiftPosition(specialContentScanner.scan(limit));
+        final boolean isCut = specialContentScanner.isCut();
+        setFragment(type, startPosition, getPosition(), isCut);
+        return !isCut;
     }
 
-    private boolean isTag(Character symbol) {
+    private boolean isTag(int symbol) {
         return START_SYMBOL == symbol || FINISH_SYMBOL == symbol;
     }
 
-    private boolean extractTagName(Character symbol, StringBuilder buffer) {
+    private boolean extractTagName(int symbol) {
         boolean result = false;
         if (SPACE != symbol) {
             if (FINISH_SYMBOL == symbol) {
-                if (buffer.length() > 0) {
-                    buffer.deleteCharAt(0);
-                    result = true;
-                }
+                result = shiftTagName();
             } else {
-                buffer.append(symbol);
+                appendTagName((char) symbol);
             }
         } else {
-            if (buffer.length() > 0) {
-                buffer.deleteCharAt(0);
-                result = true;
+            result = shiftTagName();
+        }
+        return result;
+    }
+
+    private boolean shiftTagName() {
+        boolean result = false;
+        if (tagNameFinish > tagNameStart) {
+            tagNameStart++;
+            result = true;
+        } else if (tagNameOverflow > 0) {
+            tagNameOverflow--;
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Checks, that symbol finishes name of comments tag, so tag finishes before symbol.
+     */
+    private boolean isCommentsStart(int symbol) {
+        boolean result = false;
+        if ((SPACE == symbol || FINISH_SYMBOL == symbol) && tagNameOverflow == 0 && tagNameFinish > tagNameStart) {
+            tagNameStart++;
+            result = isTagName(COMMENTS_TAG, false);
+            tagNameStart--;
+        }
+        return result;
+    }
+
+    private void clearTagName() {
+        tagNameStart = 0;
+        tagNameFinish = 0;
+        tagNameOverflow = 0;
+    }
+
+    /**
+     * Appends symbol to name. Symbols after max length are only counted, so name, which is longer than max size of
+     * token, is not compared.
+     */
+    private void appendTagName(char symbol) {
+        if (tagNameOverflow > 0 || tagNameFinish - tagNameStart >= maxTagNameLength) {
+            tagNameOverflow++;
+            return;
+        }
+        if (tagNameFinish == tagName.length) {
+            final int length = tagNameFinish - tagNameStart;
+            if (length < tagName.length / 2) {
+                System.arraycopy(tagName, tagNameStart, tagName, 0, length);
+            } else {
+                final char[] newTagName = new char[tagName.length * 2];
+                System.arraycopy(tagName, tagNameStart, newTagName, 0, length);
+                tagName = newTagName;
+            }
+            tagNameStart = 0;
+            tagNameFinish = length;
+        }
+        tagName[tagNameFinish++] = symbol;
+    }
+
+    /**
+     * Compares tag name with value like 'String.equals' or 'String.equalsIgnoreCase'.
+     */
+    private boolean isTagName(String value, boolean isCaseIgnored) {
+        boolean result = tagNameOverflow == 0 && tagNameFinish - tagNameStart == value.length();
+        for (int i = 0; result && i < value.length(); i++) {
+            final char first = tagName[tagNameStart + i];
+            final char second = value.charAt(i);
+            if (first != second) {
+                if (isCaseIgnored) {
+                    final char firstUpper = Character.toUpperCase(first);
+                    final char secondUpper = Character.toUpperCase(second);
+                    result = firstUpper == secondUpper
+                            || Character.toLowerCase(firstUpper) == Character.toLowerCase(secondUpper);
+                } else {
+                    result = false;
+                }
             }
         }
         return result;
     }
 
-    private Character getSymbol() {
-        return getSymbol(position);
+    private int read() {
+        return read(position);
     }
 
-    private Character getSymbol(long index) {
-        return text.getSymbol(index);
+    private int read(long index) {
+        return text.read(index);
     }
 
     private void makeStep() {
         position++;
     }
 
-    private long getPosition() {
-        return position;
-    }
-
     private boolean isCommentsProcessing() {
         return isCommentsProcessing;
     }
@@ -240,8 +596,8 @@ public class HtmlLexer {
 
     private void skipSpaces() {
         for (; ; ) {
-            final Character symbol = getSymbol();
-            if (symbol == null) {
+            final int symbol = read();
+            if (symbol == Text.END) {
                 break;
             }
             if (SPACE != symbol) {
@@ -251,17 +607,44 @@ public class HtmlLexer {
         }
     }
 
-    private void moveToSymbol(Character s, StringBuilder buffer) {
+    /**
+     * Moves after symbol up to limit.
+     *
+     * @return true, if limit is reached before symbol.
+     */
+    private boolean moveAfterSymbol(char s, long limit) {
+        boolean result = false;
         for (; ; ) {
-            final Character symbol = getSymbol();
-            if (symbol == null) {
+            final int symbol = read();
+            if (symbol == Text.END) {
                 break;
             }
-            buffer.append(symbol);
+            makeStep();
             if (symbol == s) {
                 break;
             }
-            makeStep();
+            if (getPosition() >= limit && read() != Text.END) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void moveToTag(long limit) {
+        while (getPosition() < limit) {
+            final int count = text.read(getPosition(), chunk, 0, (int) Math.min(chunk.length, limit - getPosition()));
+            if (count == Text.END) {
+                break;
+            }
+            int i = 0;
+            while (i < count && !isTag(chunk[i])) {
+                i++;
+            }
+            shiftPosition(getPosition() + i);
+            if (i < count) {
+                break;
+            }
         }
     }
 
@@ -269,99 +652,365 @@ public class HtmlLexer {
         this.position = position;
     }
 
-    private String getContentWithSpecialContent() {
-        final long startPosition = getPosition();
-        final StringBuilder buffer = new StringBuilder();
-        final SymbolProviderText symbolProvider = new SymbolProviderText(buffer);
-        final HtmlSpecialContentExplorer explorer = new HtmlSpecialContentExplorer(symbolProvider, symbolProvider);
-        for (; ; ) {
-            final boolean next = explorer.execute();
-            if (!next) {
-                break;
-            }
-        }
-        final long finishPosition = symbolProvider.getFinishPosition();
-        if (finishPosition >= startPosition) {
-            final int size = (int) (finishPosition - startPosition);
-            for (int i = 0; i < buffer.length() - size; i++) {
-                buffer.deleteCharAt(buffer.length() - 1);
+    private void setToken(TokenType type, long startPosition, long finishPosition) {
+        cursor.type = type;
+        cursor.start = startPosition;
+        cursor.finish = finishPosition;
+        cursor.tag = type == TokenType.TAG && tokenTypes.contains(type)
+                ? HtmlTag.find(text, startPosition, finishPosition) : HtmlTag.UNKNOWN;
+        cursor.fragment = Fragment.WHOLE;
+    }
+
+    /**
+     * Sets token or its fragment. Element of tag is found by the first fragment: name of tag can not finish between
+     * fragments except at the end of text, so name is read after the first fragment, if it is needed.
+     *
+     * @param isCut true, if token continues in the next fragment.
+     */
+    private void setFragment(TokenType type, long startPosition, long finishPosition, boolean isCut) {
+        if (fragmentType == null) {
+            setToken(type, startPosition, isCut ? NO_MAX_TOKEN_SIZE : finishPosition);
+            cursor.finish = finishPosition;
+            if (isCut) {
+                cursor.fragment = Fragment.START;
             }
-            shiftPosition(finishPosition);
+        } else {
+            cursor.type = type;
+            cursor.start = startPosition;
+            cursor.finish = finishPosition;
+            cursor.tag = fragmentTag;
+            cursor.fragment = isCut ? Fragment.CONTINUE : Fragment.END;
         }
-        return buffer.toString();
+        fragmentType = isCut ? type : null;
+        fragmentTag = cursor.tag;
     }
 
-    private class SymbolProviderText implements SymbolProvider, HtmlSpecialContentExplorerHandler {
-        private final StringBuilder content;
+    /**
+     * Token, which is reused by lexer. Symbols are not copied.
+     */
+    public static final class Cursor {
+        private final Text text;
+        private final CursorSequence sequence = new CursorSequence();
+        private TokenType type = TokenType.EMPTY;
+        private long start;
+        private long finish;
+        private HtmlTag tag = HtmlTag.UNKNOWN;
+        private Fragment fragment = Fragment.WHOLE;
+        private HtmlAttributes attributes;
+
+        private Cursor(Text text) {
+            this.text = text;
+        }
+
+        /**
+         * Returns type.
+         *
+         * @return type.
+         */
+        public TokenType getType() {
+            return type;
+        }
+
+        /**
+         * Returns element of tag.
+         *
+         * @return element or 'UNKNOWN', if tag is not known or token is not tag.
+         */
+        public HtmlTag getTag() {
+            return tag;
+        }
 
-        private final List<Character> FINISH_ARRAY = Arrays.asList(START_SYMBOL, SLASH);
+        /**
+         * Returns fragment of token.
+         *
+         * @return fragment ('WHOLE', if token is not split).
+         */
+        public Fragment getFragment() {
+            return fragment;
+        }
 
-        private final FixSizeBuffer<Character> buffer = new FixSizeBuffer<>(2);
+        /**
+         * Returns start of token in text.
+         *
+         * @return start.
+         */
+        public long getStart() {
+            return start;
+        }
 
-        private int counter;
+        /**
+         * Returns finish of token in text (exclusive).
+         *
+         * @return finish.
+         */
+        public long getFinish() {
+            return finish;
+        }
 
-        private long finishPosition = -1;
+        /**
+         * Returns length of token.
+         *
+         * @return length.
+         */
+        public long getLength() {
+            return finish - start;
+        }
+
+        /**
+         * Returns value as sequence, which reads symbols from text. Sequence is reused for every token.
+         *
+         * @return value.
+         */
+        public CharSequence getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Returns value. String is created on every call.
+         *
+         * @return value.
+         */
+        public String getValue() {
+            return text.subSequence(start, finish).toString();
+        }
+
+        /**
+         * Returns value of content, in which character references are decoded (see 'HtmlEntities'). Values of other
+         * tokens are not decoded.
+         *
+         * @return value.
+         */
+        public String getDecodedValue() {
+            return type == TokenType.CONTENT ? HtmlEntities.decode(getValue()) : getValue();
+        }
+
+        /**
+         * Returns attributes of tag, which are parsed by 'HtmlAttributes.next'. Attributes are reused for every token.
+         *
+         * @return attributes (no attributes, if token is not tag).
+         */
+        public HtmlAttributes getAttributes() {
+            final long attributesFinish = type == TokenType.TAG ? finish : start;
+            if (attributes == null) {
+                attributes = new HtmlAttributes(text, start, attributesFinish);
+            } else {
+                attributes.reset(text, start, attributesFinish);
+            }
+            return attributes;
+        }
 
-        public SymbolProviderText(StringBuilder content) {
-            this.content = content;
+        /**
+         * Creates token, which can be kept. Value of token is read from text; see 'Token.getSequence'.
+         *
+         * @return token.
+         */
+        public Token toToken() {
+            return type == TokenType.EMPTY ? Token.getEmpty() : new Token(type, text, start, finish, tag, fragment);
         }
 
         @Override
-        public Character getSymbol() {
-            Character result = HtmlLexer.this.getSymbol();
+        public String toString() {
+            return "type:\"" + type.toString() + "\", value:\"" + getValue() + "\"";
+        }
 
-            if (counter == 0) {
-                if (SPACE != result) {
-                    buffer.add(result);
+        private class CursorSequence implements CharSequence {
+            @Override
+            public int length() {
+                return (int) (finish - start);
+            }
 
-                    if (START_SYMBOL == result) {
-                        finishPosition = getPosition();
-                    }
+            @Override
+            public char charAt(int index) {
+                if (index < 0 || index >= length()) {
+                    throw new IndexOutOfBoundsException("Index " + index + " is out of sequence");
                 }
+                return (char) text.read(start + index);
             }
 
-            if (buffer.match(FINISH_ARRAY)) {
-                result = null;
+            @Override
+            public CharSequence subSequence(int start, int end) {
+                if (start < 0 || end < start || end > length()) {
+                    throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") is out of sequence");
+                }
+                return text.subSequence(Cursor.this.start + start, Cursor.this.start + end);
             }
 
-            if (result != null) {
-                content.append(result);
+            @Override
+            public String toString() {
+                return getValue();
             }
+        }
+    }
 
-            return result;
+    /**
+     * Mode of lexer, which defines how the next token is scanned.
+     */
+    enum Mode {
+        /**
+         * Tags and content.
+         */
+        MARKUP,
+
+        /**
+         * Comments after '&lt;!--'.
+         */
+        COMMENTS,
+
+        /**
+         * Script after tag 'script'.
+         */
+        SCRIPT,
+
+        /**
+         * Style after tag 'style'.
+         */
+        STYLE
+    }
+
+    /**
+     * State of lexer between tokens: position and mode of the next token.
+     */
+    public static final class Checkpoint implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final long position;
+        private final Mode mode;
+
+        Checkpoint(long position, Mode mode) {
+            this.position = position;
+            this.mode = mode;
         }
 
-        @Override
-        public void move() {
-            HtmlLexer.this.makeStep();
+        /**
+         * Returns position of the next token.
+         *
+         * @return position.
+         */
+        public long getPosition() {
+            return position;
         }
 
         @Override
-        public long getPosition() {
-            return HtmlLexer.this.getPosition();
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Checkpoint checkpoint = (Checkpoint) o;
+            return position == checkpoint.position && mode == checkpoint.mode;
         }
 
         @Override
-        public void start(long position) {
-            counter++;
-            reset();
+        public int hashCode() {
+            int result = (int) (position ^ (position >>> 32));
+            result = 31 * result + mode.ordinal();
+            return result;
         }
 
         @Override
-        public void finish(long position) {
-            counter--;
+        public String toString() {
+            return "position:" + position + ", mode:" + mode.toString();
         }
+    }
+
+    /**
+     * Options of lexer. By default lexer passes tokens of all types, does not split tokens, starts from the beginning
+     * of text and is read by 'hasNext' and 'next'. Setters return options, so they can be chained.
+     */
+    public static final class Options {
+        private Set<TokenType> tokenTypes = EnumSet.allOf(TokenType.class);
+        private long maxTokenSize = NO_MAX_TOKEN_SIZE;
+        private Checkpoint checkpoint;
+        private HtmlLexerHandler handler;
+        private HtmlLexerCursorHandler cursorHandler;
 
-        private void reset() {
-            buffer.reset();
-            finishPosition = -1;
+        /**
+         * Sets types of tokens, which are passed (empty token is always passed). Other tokens are skipped: their
+         * finishes are found, but neither tokens nor values are created.
+         *
+         * @param tokenTypes types of tokens (can not be null).
+         * @return options.
+         */
+        public Options setTokenTypes(Set<TokenType> tokenTypes) {
+            this.tokenTypes = EnumSet.noneOf(TokenType.class);
+            this.tokenTypes.addAll(checkNotNull(tokenTypes));
+            return this;
         }
 
-        public long getFinishPosition() {
-            return finishPosition;
+        /**
+         * Sets max size of token. Longer tokens are split into fragments.
+         *
+         * @param maxTokenSize max size of token (more than 1).
+         * @return options.
+         */
+        public Options setMaxTokenSize(long maxTokenSize) {
+            checkArgument(maxTokenSize > 1, "Max size of token has to be more than 1");
+            this.maxTokenSize = maxTokenSize;
+            return this;
+        }
+
+        /**
+         * Sets checkpoint, from which scanning is resumed. Text has to contain the same symbols, which were scanned
+         * before checkpoint.
+         *
+         * @param checkpoint checkpoint (can not be null).
+         * @return options.
+         */
+        public Options setCheckpoint(Checkpoint checkpoint) {
+            this.checkpoint = checkNotNull(checkpoint);
+            return this;
+        }
+
+        /**
+         * Sets handler, which is called by 'execute'. Cursor handler is removed.
+         *
+         * @param handler handler (can not be null).
+         * @return options.
+         */
+        public Options setHandler(HtmlLexerHandler handler) {
+            this.handler = checkNotNull(handler);
+            this.cursorHandler = null;
+            return this;
+        }
+
+        /**
+         * Sets cursor handler, which is called by 'execute' with one reusable cursor instead of tokens. Tags and content
+         * are scanned without creating objects. Handler is removed.
+         *
+         * @param cursorHandler cursor handler (can not be null).
+         * @return options.
+         */
+        public Options setCursorHandler(HtmlLexerCursorHandler cursorHandler) {
+            this.cursorHandler = checkNotNull(cursorHandler);
+            this.handler = null;
+            return this;
         }
     }
 
+    /**
+     * Part of token, which is longer than max size of token. Fragments of one token follow each other.
+     */
+    public enum Fragment {
+        /**
+         * Token is not split.
+         */
+        WHOLE,
+
+        /**
+         * The first fragment.
+         */
+        START,
+
+        /**
+         * Fragment between the first and the last ones.
+         */
+        CONTINUE,
+
+        /**
+         * The last fragment (can be empty: e.g. script without closing tag, which finishes at the end of text before
+         * '&lt;' after the previous fragment).
+         */
+        END
+    }
+
     /**
      * Type of token.
      */
@@ -406,7 +1055,12 @@ public class HtmlLexer {
         private static final Token EMPTY = new Token(TokenType.EMPTY, EMPTY_TOKEN_VALUE);
 
         private final TokenType type;
-        private final String value;
+        private final Text text;
+        private final long start;
+        private final long finish;
+        private final HtmlTag tag;
+        private final Fragment fragment;
+        private String value;
 
         /**
          * Creates new token.
@@ -419,7 +1073,50 @@ public class HtmlLexer {
             checkNotNull(value);
 
             this.type = type;
+            this.text = null;
+            this.start = 0;
+            this.finish = value.length();
             this.value = value;
+            this.tag = type == TokenType.TAG
+                    ? HtmlTag.find(Factory.createText(value), 0, value.length()) : HtmlTag.UNKNOWN;
+            this.fragment = Fragment.WHOLE;
+        }
+
+        /**
+         * Creates new token, which refers to range of text. Symbols are not copied.
+         *
+         * @param type   type (can not be null).
+         * @param text   text (can not be null).
+         * @param start  start of token in text.
+         * @param finish finish of token in text (exclusive).
+         * @param tag    element of tag (can not be null).
+         */
+        Token(TokenType type, Text text, long start, long finish, HtmlTag tag) {
+            this(type, text, start, finish, tag, Fragment.WHOLE);
+        }
+
+        /**
+         * Creates new token or its fragment, which refers to range of text.
+         *
+         * @param type     type (can not be null).
+         * @param text     text (can not be null).
+         * @param start    start of token in text.
+         * @param finish   finish of token in text (exclusive).
+         * @param tag      element of tag (can not be null).
+         * @param fragment fragment (can not be null).
+         */
+        Token(TokenType type, Text text, long start, long finish, HtmlTag tag, Fragment fragment) {
+            checkNotNull(type);
+            checkNotNull(text);
+            checkNotNull(tag);
+            checkNotNull(fragment);
+
+            this.type = type;
+            this.text = text;
+            this.start = start;
+            this.finish = finish;
+            this.tag = tag;
+            this.fragment = fragment;
         }
 
         /**
@@ -432,32 +1129,117 @@ public class HtmlLexer {
         }
 
         /**
-         * Returns value.
+         * Returns element of tag.
+         *
+         * @return element or 'UNKNOWN', if tag is not known or token is not tag.
+         */
+        public HtmlTag getTag() {
+            return tag;
+        }
+
+        /**
+         * Returns fragment of token.
+         *
+         * @return fragment ('WHOLE', if token is not split).
+         */
+        public Fragment getFragment() {
+            return fragment;
+        }
+
+        /**
+         * Returns start of token in text.
+         *
+         * @return start.
+         */
+        public long getStart() {
+            return start;
+        }
+
+        /**
+         * Returns finish of token in text (exclusive).
+         *
+         * @return finish.
+         */
+        public long getFinish() {
+            return finish;
+        }
+
+        /**
+         * Returns length of token.
+         *
+         * @return length.
+         */
+        public long getLength() {
+            return finish - start;
+        }
+
+        /**
+         * Returns value without copying symbols. Symbols are read from text, so for texts, which drop released
+         * symbols (see 'Factory.createText(Reader)'), sequence can be read only in handler.
+         *
+         * @return value.
+         */
+        public CharSequence getSequence() {
+            CharSequence result = value;
+            if (result == null) {
+                result = text.subSequence(start, finish);
+            }
+            return result;
+        }
+
+        /**
+         * Returns value. String is created, when it is requested first time; see 'getSequence'.
          *
          * @return value.
          */
         public String getValue() {
+            if (value == null) {
+                value = text.subSequence(start, finish).toString();
+            }
             return value;
         }
 
+        /**
+         * Returns value of content, in which character references are decoded (see 'HtmlEntities'). Values of other
+         * tokens and values without '&amp;' are returned as is.
+         *
+         * @return value.
+         */
+        public String getDecodedValue() {
+            return type == TokenType.CONTENT ? HtmlEntities.decode(getValue()) : getValue();
+        }
+
+        /**
+         * Returns attributes of tag, which are parsed by 'HtmlAttributes.next'. Symbols are read from text like in
+         * 'getSequence'.
+         *
+         * @return attributes (no attributes, if token is not tag).
+         */
+        public HtmlAttributes getAttributes() {
+            final Text attributesText = text == null ? Factory.createText(value) : text;
+            return new HtmlAttributes(attributesText, start, type == TokenType.TAG ? finish : start);
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             Token token = (Token) o;
-            return type == token.type && value.equals(token.value);
+            return type == token.type && fragment == token.fragment && getValue().equals(token.getValue());
         }
 
         @Override
         public int hashCode() {
             int result = type.hashCode();
-            result = 31 * result + value.hashCode();
+            result = 31 * result + fragment.hashCode();
+            result = 31 * result + getValue().hashCode();
             return result;
         }
 
         @Override
         public String toString() {
-            return "type:\"" + type.toString() + "\", value:\"" + value + "\"";
+            final String result = "type:\"" + type.toString() + "\", value:\"" + getValue() + "\"";
+            return fragment == Fragment.WHOLE ? result : result + ", fragment:\"" + fragment.toString() + "\"";
         }
 
         /**
@@ -0,0 +1,15 @@
+package nextextz.text.pack.lexer;
+
+/**
+ * Handles tokens from 'Html Lexer' without creating them.
+ */
+public interface HtmlLexerCursorHandler {
+
+    /**
+     * Handles token. Cursor is reused for every token, so it is valid only in this method; use
+     * 'HtmlLexer.Cursor.toToken' to keep token.
+     *
+     * @param cursor cursor.
+     */
+    void handle(HtmlLexer.Cursor cursor);
+}
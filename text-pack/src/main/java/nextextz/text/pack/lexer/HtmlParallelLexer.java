@@ -0,0 +1,267 @@
+package nextextz.text.pack.lexer;
+
+import com.google.common.collect.Lists;
+import nextextz.text.pack.text.Text;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Extracts tokens from html like 'HtmlLexer', but chunks of text are scanned in parallel. Every chunk, except the
+ * first, is scanned speculatively from its start as markup, and the state (position and mode) before every token is
+ * kept. Then chunks are merged in order: tokens of chunk are taken from the first state, which is equal to the state
+ * after the previous chunk; before it tokens are scanned again (usually only the tail of token, which is split by
+ * boundary). Tokens depend only on state, so tokens are the same as tokens of 'HtmlLexer'.
+ * <p/>
+ * Text is read by several threads, so it has to be safe for concurrent reading (e.g. 'Factory.createText(String)' or
+ * 'Factory.createText(Path, Charset)' in single-byte charset, but not in 'UTF-8').
+ */
+public class HtmlParallelLexer {
+    private static final long DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    // Threads of pool are daemons and created, when they are needed, so pool is never shut down.
+    private static final ForkJoinPool DEFAULT_POOL = new ForkJoinPool();
+
+    private final Text text;
+    private final HtmlLexerHandler handler;
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+
+    /**
+     * Creates new lexer, which uses shared pool with threads for all processors and chunks of 1M symbols.
+     *
+     * @param text    text (can not be null).
+     * @param handler handler (can not be null).
+     */
+    public HtmlParallelLexer(
+            Text text,
+            HtmlLexerHandler handler) {
+        this(text, handler, DEFAULT_POOL, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates new lexer.
+     *
+     * @param text      text (can not be null).
+     * @param handler   handler (can not be null).
+     * @param pool      pool (can not be null).
+     * @param chunkSize size of chunk (more than 0).
+     */
+    public HtmlParallelLexer(
+            Text text,
+            HtmlLexerHandler handler,
+            ForkJoinPool pool,
+            long chunkSize) {
+        checkNotNull(text);
+        checkNotNull(handler);
+        checkNotNull(pool);
+        checkArgument(chunkSize > 0, "Size of chunk has to be more than 0");
+
+        this.text = text;
+        this.handler = handler;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Executes getting all tokens. Tokens are passed to handler in order of text, and the last token is empty.
+     */
+    public void execute() {
+        final long length = text.getLength();
+        final int chunkCount = (int) Math.max(1, (length + chunkSize - 1) / chunkSize);
+        final Chunk[] chunks = new Chunk[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i] = new Chunk(text, i * chunkSize, Math.min(length, (i + 1) * chunkSize));
+        }
+        pool.invoke(new ChunksTask(chunks));
+        merge(chunks);
+        handler.handle(HtmlLexer.Token.getEmpty());
+    }
+
+    private void merge(Chunk[] chunks) {
+        long position = 0;
+        HtmlLexer.Mode mode = HtmlLexer.Mode.MARKUP;
+        HtmlLexer lexer = null;
+        for (Chunk chunk : chunks) {
+            for (; ; ) {
+                final int index = chunk.find(position, mode);
+                if (index >= 0) {
+                    for (int i = index; i < chunk.count; i++) {
+                        handler.handle(chunk.createToken(i));
+                    }
+                    position = chunk.finishPosition;
+                    mode = chunk.finishMode;
+                    lexer = null;
+                    break;
+                }
+                if (position >= chunk.finishPosition) {
+                    break;
+                }
+                if (lexer == null) {
+                    lexer = new HtmlLexer(text,
+                            new HtmlLexer.Options().setCheckpoint(new HtmlLexer.Checkpoint(position, mode)));
+                }
+                if (!lexer.hasNext()) {
+                    break;
+                }
+                handler.handle(lexer.next());
+                position = lexer.getPosition();
+                mode = lexer.getMode();
+            }
+        }
+    }
+
+    /**
+     * Tokens of chunk and states before them. Tokens are kept in arrays and created, when they are merged.
+     */
+    private static class Chunk implements HtmlLexerCursorHandler {
+        private static final HtmlLexer.TokenType[] TYPES = HtmlLexer.TokenType.values();
+        private static final HtmlTag[] TAGS = HtmlTag.values();
+        private static final int CAPACITY = 16;
+
+        private final Text text;
+        private final long start;
+        private final long finish;
+
+        private int count;
+        private long[] positions = new long[CAPACITY];
+        private byte[] modes = new byte[CAPACITY];
+        private byte[] types = new byte[CAPACITY];
+        private short[] tags = new short[CAPACITY];
+        private long[] starts = new long[CAPACITY];
+        private long[] finishes = new long[CAPACITY];
+        private long finishPosition;
+        private HtmlLexer.Mode finishMode;
+
+        Chunk(Text text, long start, long finish) {
+            this.text = text;
+            this.start = start;
+            this.finish = finish;
+        }
+
+        /**
+         * Scans tokens, which start before finish of chunk.
+         */
+        void scan() {
+            final HtmlLexer lexer = new HtmlLexer(text, new HtmlLexer.Options().setCursorHandler(this)
+                    .setCheckpoint(new HtmlLexer.Checkpoint(start, HtmlLexer.Mode.MARKUP)));
+            for (; ; ) {
+                final long position = lexer.getPosition();
+                if (position >= finish) {
+                    break;
+                }
+                if (count == positions.length) {
+                    grow();
+                }
+                positions[count] = position;
+                modes[count] = (byte) lexer.getMode().ordinal();
+                lexer.execute();
+                if (types[count] == HtmlLexer.TokenType.EMPTY.ordinal()) {
+                    break;
+                }
+                count++;
+            }
+            finishPosition = lexer.getPosition();
+            finishMode = lexer.getMode();
+        }
+
+        @Override
+        public void handle(HtmlLexer.Cursor cursor) {
+            types[count] = (byte) cursor.getType().ordinal();
+            tags[count] = (short) cursor.getTag().ordinal();
+            starts[count] = cursor.getStart();
+            finishes[count] = cursor.getFinish();
+        }
+
+        /**
+         * Creates token.
+         *
+         * @param index index of token.
+         * @return token.
+         */
+        HtmlLexer.Token createToken(int index) {
+            return new HtmlLexer.Token(TYPES[types[index]], text, starts[index], finishes[index], TAGS[tags[index]]);
+        }
+
+        /**
+         * Finds token, which is scanned from given state.
+         *
+         * @return index of token, count of tokens for the finish state, or -1, if there is no token.
+         */
+        int find(long position, HtmlLexer.Mode mode) {
+            int result = -1;
+            if (position == finishPosition && mode == finishMode) {
+                result = count;
+            } else {
+                int index = Arrays.binarySearch(positions, 0, count, position);
+                if (index >= 0) {
+                    while (index > 0 && positions[index - 1] == position) {
+                        index--;
+                    }
+                    for (; index < count && positions[index] == position; index++) {
+                        if (modes[index] == mode.ordinal()) {
+                            result = index;
+                            break;
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void grow() {
+            final int capacity = positions.length * 2;
+            positions = Arrays.copyOf(positions, capacity);
+            modes = Arrays.copyOf(modes, capacity);
+            types = Arrays.copyOf(types, capacity);
+            tags = Arrays.copyOf(tags, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            finishes = Arrays.copyOf(finishes, capacity);
+        }
+    }
+
+    /**
+     * Scans all chunks in parallel.
+     */
+    private static class ChunksTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Chunk[] chunks;
+
+        ChunksTask(Chunk[] chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        protected void compute() {
+            final List<ChunkTask> tasks = Lists.newArrayList();
+            for (Chunk chunk : chunks) {
+                tasks.add(new ChunkTask(chunk));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Scans one chunk.
+     */
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Chunk chunk;
+
+        ChunkTask(Chunk chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            chunk.scan();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package nextextz.text.pack.lexer;
+
+import nextextz.text.pack.text.Text;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Extracts tokens from html, which is fed by chunks, like 'HtmlLexer'. Tokens are passed to handler, as soon as they
+ * are fed. Only token, whose scanning reads after the last fed symbol, is held: its scanning is continued from the
+ * stopped position after the next chunk (or after the end of input), so long token is not scanned again. Symbols
+ * before held token are dropped, so memory depends on size of tokens, not on size of html.
+ * <p/>
+ * Symbols of passed tokens are dropped after handling, so values of tokens have to be taken in handler.
+ */
+public class HtmlPushLexer {
+    private final Buffer buffer = new Buffer();
+    private final HtmlLexerHandler handler;
+    private final HtmlLexerCursorHandler cursorHandler;
+    private final Collector collector = new Collector();
+
+    private final HtmlLexer lexer;
+
+    /**
+     * Creates new lexer.
+     *
+     * @param handler handler (can not be null).
+     */
+    public HtmlPushLexer(HtmlLexerHandler handler) {
+        this(checkNotNull(handler), null);
+    }
+
+    /**
+     * Creates new lexer, which passes one reusable cursor instead of tokens.
+     *
+     * @param handler handler (can not be null).
+     */
+    public HtmlPushLexer(HtmlLexerCursorHandler handler) {
+        this(null, checkNotNull(handler));
+    }
+
+    private HtmlPushLexer(
+            HtmlLexerHandler handler,
+            HtmlLexerCursorHandler cursorHandler) {
+        this.handler = handler;
+        this.cursorHandler = cursorHandler;
+        this.lexer = new HtmlLexer(buffer, new HtmlLexer.Options().setCursorHandler(collector));
+    }
+
+    /**
+     * Feeds symbols and passes scanned tokens to handler.
+     *
+     * @param chunk symbols (can not be null).
+     */
+    public void feed(char[] chunk) {
+        checkNotNull(chunk);
+        feed(chunk, 0, chunk.length);
+    }
+
+    /**
+     * Feeds symbols and passes scanned tokens to handler.
+     *
+     * @param chunk  symbols (can not be null).
+     * @param offset offset of the first symbol.
+     * @param length count of symbols.
+     */
+    public void feed(char[] chunk, int offset, int length) {
+        checkNotNull(chunk);
+        checkPositionIndexes(offset, offset + length, chunk.length);
+        checkState(!buffer.isFinished, "Input is finished");
+        buffer.append(chunk, offset, length);
+        scan();
+    }
+
+    /**
+     * Feeds remaining symbols of buffer and passes scanned tokens to handler.
+     *
+     * @param chunk symbols (can not be null).
+     */
+    public void feed(CharBuffer chunk) {
+        checkNotNull(chunk);
+        checkState(!buffer.isFinished, "Input is finished");
+        buffer.append(chunk);
+        scan();
+    }
+
+    /**
+     * Finishes input and passes the rest tokens to handler. The last token is empty.
+     */
+    public void endOfInput() {
+        checkState(!buffer.isFinished, "Input is finished");
+        buffer.isFinished = true;
+        scan();
+    }
+
+    private void scan() {
+        for (; ; ) {
+            buffer.isEndRead = false;
+            collector.isHeld = false;
+            lexer.execute();
+            if (collector.isHeld) {
+                lexer.hold();
+                break;
+            }
+            if (collector.isEmpty) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Passes token to handler, if its scanning has not read after the last fed symbol.
+     */
+    private class Collector implements HtmlLexerCursorHandler {
+        private boolean isHeld;
+        private boolean isEmpty;
+
+        @Override
+        public void handle(HtmlLexer.Cursor cursor) {
+            isHeld = buffer.isEndRead && !buffer.isFinished;
+            isEmpty = cursor.getType() == HtmlLexer.TokenType.EMPTY;
+            if (!isHeld) {
+                if (handler != null) {
+                    handler.handle(cursor.toToken());
+                } else {
+                    cursorHandler.handle(cursor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Text of fed symbols. Symbols before released position are dropped, when the next chunk is appended.
+     */
+    private static class Buffer implements Text {
+        private static final int CAPACITY = 4096;
+
+        private char[] symbols = new char[CAPACITY];
+        private long start;
+        private int count;
+        private long releasedPosition;
+        private boolean isFinished;
+        private boolean isEndRead;
+
+        void append(char[] chunk, int offset, int length) {
+            prepare(length);
+            System.arraycopy(chunk, offset, symbols, count, length);
+            count += length;
+        }
+
+        void append(CharBuffer chunk) {
+            final int length = chunk.remaining();
+            prepare(length);
+            chunk.get(symbols, count, length);
+            count += length;
+        }
+
+        @Override
+        public Character getSymbol(long index) {
+            Character result = null;
+            final int symbol = read(index);
+            if (symbol != END) {
+                result = (char) symbol;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(long index) {
+            int result = END;
+            if (isAvailable(index)) {
+                result = symbols[(int) (index - start)];
+            }
+            return result;
+        }
+
+        @Override
+        public int read(long index, char[] buffer, int offset, int length) {
+            checkNotNull(buffer);
+            checkPositionIndexes(offset, offset + length, buffer.length);
+            int result = length == 0 ? 0 : END;
+            if (length > 0 && isAvailable(index)) {
+                final int from = (int) (index - start);
+                result = Math.min(length, count - from);
+                System.arraycopy(symbols, from, buffer, offset, result);
+            }
+            return result;
+        }
+
+        @Override
+        public int read(long index, CharBuffer buffer) {
+            checkNotNull(buffer);
+            int result = buffer.hasRemaining() ? END : 0;
+            if (buffer.hasRemaining() && isAvailable(index)) {
+                final int from = (int) (index - start);
+                result = Math.min(buffer.remaining(), count - from);
+                buffer.put(symbols, from, result);
+            }
+            return result;
+        }
+
+        @Override
+        public CharSequence subSequence(long start, long finish) {
+            if (start >= 0 && start < this.start) {
+                throw new IllegalStateException("Symbol " + start + " is dropped");
+            }
+            if (start < 0 || finish < start || finish > getLength()) {
+                throw new IndexOutOfBoundsException("Range [" + start + ", " + finish + ") is out of buffer");
+            }
+            return new String(symbols, (int) (start - this.start), (int) (finish - start));
+        }
+
+        @Override
+        public long getLength() {
+            return start + count;
+        }
+
+        @Override
+        public void release(long position) {
+            if (position > releasedPosition) {
+                releasedPosition = position;
+            }
+        }
+
+        /**
+         * Checks, that symbol is fed; reading after the last fed symbol is remembered.
+         */
+        private boolean isAvailable(long index) {
+            if (index >= 0 && index < start) {
+                throw new IllegalStateException("Symbol " + index + " is dropped");
+            }
+            final boolean result = index >= 0 && index < start + count;
+            if (!result && index >= start + count && !isFinished) {
+                isEndRead = true;
+            }
+            return result;
+        }
+
+        /**
+         * Drops released symbols and grows array for appended symbols.
+         */
+        private void prepare(int length) {
+            final int released = (int) Math.min(releasedPosition - start, count);
+            if (released > 0) {
+                System.arraycopy(symbols, released, symbols, 0, count - released);
+                start += released;
+                count -= released;
+            }
+            if (count + length > symbols.length) {
+                symbols = Arrays.copyOf(symbols, Math.max(symbols.length * 2, count + length));
+            }
+        }
+    }
+}
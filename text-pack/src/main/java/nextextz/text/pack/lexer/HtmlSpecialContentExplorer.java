@@ -3,7 +3,6 @@ package nextextz.text.pack.lexer;
 import com.google.common.collect.Lists;
 import nextextz.text.pack.text.SymbolProvider;
 
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -13,17 +12,17 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Finds special content and skips.
  */
 public class HtmlSpecialContentExplorer {
-    private static final Character SLASH = '/';
-    private static final Character BACK_SLASH = '\\';
-    private static final Character SPACE = ' ';
-    private static final Character ASTERISK = '*';
-    private static final Character NEW_LINE = '\n';
-    private static final Character QUOTE = '\'';
-    private static final Character DOUBLE_QUOTE = '"';
-    private static final Character START = '<';
-    private static final Character FINISH = '>';
-    private static final Character EXCLAMATION_MARK = '!';
-    private static final Character MINUS = '-';
+    private static final char SLASH = '/';
+    private static final char BACK_SLASH = '\\';
+    private static final char SPACE = ' ';
+    private static final char ASTERISK = '*';
+    private static final char NEW_LINE = '\n';
+    private static final char QUOTE = '\'';
+    private static final char DOUBLE_QUOTE = '"';
+    private static final char START = '<';
+    private static final char FINISH = '>';
+    private static final char EXCLAMATION_MARK = '!';
+    private static final char MINUS = '-';
 
     private final SymbolProvider symbolProvider;
     private final HtmlSpecialContentExplorerHandler handler;
@@ -61,9 +60,9 @@ public class HtmlSpecialContentExplorer {
     public boolean execute() {
         boolean result = true;
 
-        final Character symbol = getSymbol();
+        final int symbol = read();
 
-        if (symbol == null) {
+        if (symbol == SymbolProvider.END) {
             if (hasDetectors()) {
                 executeFinish();
             }
@@ -91,8 +90,8 @@ public class HtmlSpecialContentExplorer {
         return result;
     }
 
-    private Character getSymbol() {
-        return symbolProvider.getSymbol();
+    private int read() {
+        return symbolProvider.read();
     }
 
     private void move() {
@@ -147,7 +146,7 @@ public class HtmlSpecialContentExplorer {
         return detector instanceof SymbolDetector;
     }
 
-    private Detector findActiveDetector(Character symbol) {
+    private Detector findActiveDetector(int symbol) {
         Detector result = null;
         for (Detector detector : detectors) {
             if ((isTailDetectorHierarchical() && isDetectorLinear(detector)) || isTailDetectorLinear()) {
@@ -162,18 +161,18 @@ public class HtmlSpecialContentExplorer {
     }
 
     private static abstract class Detector {
-        public abstract boolean isStart(Character symbol);
+        public abstract boolean isStart(int symbol);
 
-        public abstract boolean isFinish(Character symbol);
+        public abstract boolean isFinish(int symbol);
     }
 
     private static class LineCommentsDetector extends Detector {
-        private static final List<Character> START_ARRAY = Arrays.asList(SLASH, SLASH);
+        private static final char[] START_ARRAY = {SLASH, SLASH};
 
-        private final FixSizeBuffer<Character> buffer = new FixSizeBuffer<>(2);
+        private final FixSizeSymbolBuffer buffer = new FixSizeSymbolBuffer(2);
 
         @Override
-        public boolean isStart(Character symbol) {
+        public boolean isStart(int symbol) {
             boolean result = false;
             if (SPACE != symbol) {
                 buffer.add(symbol);
@@ -186,20 +185,20 @@ public class HtmlSpecialContentExplorer {
         }
 
         @Override
-        public boolean isFinish(Character symbol) {
+        public boolean isFinish(int symbol) {
             return NEW_LINE == symbol;
         }
     }
 
     private static class ComplexCommentsDetector extends Detector {
-        private static final List<Character> START_ARRAY = Arrays.asList(SLASH, ASTERISK);
+        private static final char[] START_ARRAY = {SLASH, ASTERISK};
 
-        private final FixSizeBuffer<Character> buffer = new FixSizeBuffer<>(2);
+        private final FixSizeSymbolBuffer buffer = new FixSizeSymbolBuffer(2);
 
-        private Character previousSymbol;
+        private int previousSymbol = SymbolProvider.END;
 
         @Override
-        public boolean isStart(Character symbol) {
+        public boolean isStart(int symbol) {
             boolean result = false;
             if (SPACE != symbol) {
                 buffer.add(symbol);
@@ -212,11 +211,11 @@ public class HtmlSpecialContentExplorer {
         }
 
         @Override
-        public boolean isFinish(Character symbol) {
+        public boolean isFinish(int symbol) {
             boolean result = false;
             if (ASTERISK == previousSymbol && SLASH == symbol) {
                 result = true;
-                previousSymbol = null;
+                previousSymbol = SymbolProvider.END;
             } else {
                 previousSymbol = symbol;
             }
@@ -225,14 +224,14 @@ public class HtmlSpecialContentExplorer {
     }
 
     private static class XmlCommentsDetector extends Detector {
-        private static final List<Character> START_ARRAY = Arrays.asList(START, EXCLAMATION_MARK, MINUS, MINUS);
-        private static final List<Character> FINISH_ARRAY = Arrays.asList(MINUS, MINUS, FINISH);
+        private static final char[] START_ARRAY = {START, EXCLAMATION_MARK, MINUS, MINUS};
+        private static final char[] FINISH_ARRAY = {MINUS, MINUS, FINISH};
 
-        private final FixSizeBuffer<Character> startBuffer = new FixSizeBuffer<>(4);
-        private final FixSizeBuffer<Character> finishBuffer = new FixSizeBuffer<>(3);
+        private final FixSizeSymbolBuffer startBuffer = new FixSizeSymbolBuffer(4);
+        private final FixSizeSymbolBuffer finishBuffer = new FixSizeSymbolBuffer(3);
 
         @Override
-        public boolean isStart(Character symbol) {
+        public boolean isStart(int symbol) {
             boolean result = false;
             if (SPACE != symbol) {
                 startBuffer.add(symbol);
@@ -245,7 +244,7 @@ public class HtmlSpecialContentExplorer {
         }
 
         @Override
-        public boolean isFinish(Character symbol) {
+        public boolean isFinish(int symbol) {
             boolean result = false;
             if (finishBuffer.match(FINISH_ARRAY)) {
                 result = true;
@@ -276,17 +275,17 @@ public class HtmlSpecialContentExplorer {
     }
 
     private static class SymbolDetector extends Detector {
-        private final Character symbol;
+        private final char symbol;
         private final FlagContainer container;
         private boolean isNextSpecial;
 
-        public SymbolDetector(Character symbol, FlagContainer container) {
+        public SymbolDetector(char symbol, FlagContainer container) {
             this.symbol = symbol;
             this.container = container;
         }
 
         @Override
-        public boolean isStart(Character symbol) {
+        public boolean isStart(int symbol) {
             boolean result = false;
             if (BACK_SLASH == symbol) {
                 isNextSpecial = true;
@@ -302,7 +301,7 @@ public class HtmlSpecialContentExplorer {
         }
 
         @Override
-        public boolean isFinish(Character symbol) {
+        public boolean isFinish(int symbol) {
             boolean result = false;
             if (container.isFlag() && symbol == this.symbol) {
                 container.resentFlag();
@@ -0,0 +1,363 @@
+package nextextz.text.pack.lexer;
+
+import nextextz.text.pack.text.Text;
+
+import java.util.Arrays;
+
+/**
+ * Finds finish of script or style in one pass. Content finishes before '</' (spaces between symbols are allowed),
+ * which is out of special comments and strings; rules are the same as in 'HtmlSpecialContentExplorer', but detectors
+ * are inlined: buffers of detectors are kept as classes of the last symbols packed into int, strings are skipped up
+ * to closing quote, and runs of ordinary symbols are skipped at once, because they only break started sequences.
+ */
+class HtmlSpecialContentScanner {
+    private static final int CHUNK_SIZE = 512;
+
+    private static final char START_SYMBOL = '<';
+    private static final char SPACE = ' ';
+    private static final char SLASH = '/';
+    private static final char NEW_LINE = '\n';
+
+    private static final int EMPTY_CLASS = 0;
+    private static final int OTHER_CLASS = 1;
+    private static final int SLASH_CLASS = 2;
+    private static final int ASTERISK_CLASS = 3;
+    private static final int START_CLASS = 4;
+    private static final int EXCLAMATION_MARK_CLASS = 5;
+    private static final int MINUS_CLASS = 6;
+    private static final int FINISH_CLASS = 7;
+    private static final int SPACE_CLASS = 8;
+    private static final int BACK_SLASH_CLASS = 9;
+    private static final int QUOTE_CLASS = 10;
+    private static final int NEW_LINE_CLASS = 11;
+
+    private static final int CLASS_BITS = 4;
+    private static final int COMMENTS_START_MASK = 0xFF;
+    private static final int XML_COMMENTS_START_MASK = 0xFFFF;
+    private static final int XML_COMMENTS_FINISH_MASK = 0xFFF;
+    private static final int LINE_COMMENTS_START = pack(SLASH_CLASS, SLASH_CLASS);
+    private static final int COMPLEX_COMMENTS_START = pack(SLASH_CLASS, ASTERISK_CLASS);
+    private static final int XML_COMMENTS_START = pack(START_CLASS, EXCLAMATION_MARK_CLASS, MINUS_CLASS, MINUS_CLASS);
+    private static final int XML_COMMENTS_FINISH = pack(MINUS_CLASS, MINUS_CLASS, FINISH_CLASS);
+
+    private static final byte[] CLASSES = createClasses();
+
+    private static final byte NO_DETECTOR = -1;
+    private static final byte LINE_COMMENTS = 0;
+    private static final byte COMPLEX_COMMENTS = 1;
+    private static final byte XML_COMMENTS = 2;
+    private static final byte STRING = 3;
+
+    private final Text text;
+    private final long startPosition;
+    private final char[] chunk = new char[CHUNK_SIZE];
+    private long chunkStart;
+    private int chunkCount;
+
+    private long position;
+    private byte[] detectors = new byte[4];
+    private int depth;
+    private int quote;
+
+    private int lineCommentsStart;
+    private int complexCommentsStart;
+    private int xmlCommentsStart;
+    private int xmlCommentsFinish;
+    private int complexCommentsPreviousClass = EMPTY_CLASS;
+    private boolean isNextSpecial;
+    private long startSymbolPosition = -1;
+    private long checkedStartSymbolPosition = -1;
+    private long checkedPosition;
+    private boolean isCut;
+
+    private int savedLineCommentsStart;
+    private int savedComplexCommentsStart;
+    private int savedXmlCommentsStart;
+    private int savedXmlCommentsFinish;
+    private int savedComplexCommentsPreviousClass;
+    private boolean savedIsNextSpecial;
+
+    /**
+     * Creates new scanner.
+     *
+     * @param text          text.
+     * @param startPosition start of content.
+     */
+    HtmlSpecialContentScanner(Text text, long startPosition) {
+        this.text = text;
+        this.startPosition = startPosition;
+        this.position = startPosition;
+    }
+
+    /**
+     * Scans content. If text finishes before '</', content finishes before the last '<', which is out of comments
+     * and strings and after them.
+     *
+     * @return finish of content.
+     */
+    long scan() {
+        return scan(Long.MAX_VALUE);
+    }
+
+    /**
+     * Scans content up to limit. If content does not finish before limit, scanning stops (see 'isCut') and can be
+     * continued by the next call. Scanning stops at the last '&lt;', which can finish content at the end of text, or
+     * at limit, if there is no such '&lt;' after the previous stop (then it is not taken into account). Scanning,
+     * which is not cut, can be continued by the next call too, if text grows: it stops at the end of text or at
+     * '&lt;', after which only spaces are read.
+     *
+     * @param limit limit of position.
+     * @return finish of content or limit.
+     */
+    long scan(long limit) {
+        final long fragmentStart = isCut ? position : startPosition;
+        isCut = false;
+        for (; ; ) {
+            final int symbol = read(position);
+            if (symbol == Text.END) {
+                break;
+            }
+            if (depth == 0 && symbol == START_SYMBOL) {
+                startSymbolPosition = position;
+                final int nextSymbol = readAfterSpaces();
+                if (SLASH == nextSymbol || nextSymbol == Text.END) {
+                    break;
+                }
+                save();
+            }
+            if (position >= limit) {
+                if (startSymbolPosition > fragmentStart) {
+                    restore();
+                    position = startSymbolPosition;
+                }
+                isCut = true;
+                break;
+            }
+            if (depth > 0 && detectors[depth - 1] == STRING) {
+                skipString(limit);
+                continue;
+            }
+            final int symbolClass = getClass(symbol);
+            final boolean isXmlCommentsFinish = depth > 0 && detectors[depth - 1] == XML_COMMENTS
+                    && xmlCommentsFinish == XML_COMMENTS_FINISH;
+            if (symbolClass == OTHER_CLASS && !isXmlCommentsFinish) {
+                skipOthers(limit);
+            } else if (step(symbol, symbolClass)) {
+                startSymbolPosition = -1;
+            }
+        }
+        return !isCut && startSymbolPosition >= Math.max(startPosition, fragmentStart) ? startSymbolPosition : position;
+    }
+
+    /**
+     * Checks, that the last scanning stopped at limit before finish of content.
+     *
+     * @return true, if scanning stopped at limit.
+     */
+    boolean isCut() {
+        return isCut;
+    }
+
+    /**
+     * Moves over symbol.
+     *
+     * @return true, if comments or string start.
+     */
+    private boolean step(int symbol, int symbolClass) {
+        byte detector = NO_DETECTOR;
+        if (symbolClass != SPACE_CLASS) {
+            final int bufferClass = symbolClass > FINISH_CLASS ? OTHER_CLASS : symbolClass;
+            lineCommentsStart = push(lineCommentsStart, bufferClass, COMMENTS_START_MASK);
+            complexCommentsStart = push(complexCommentsStart, bufferClass, COMMENTS_START_MASK);
+            xmlCommentsStart = push(xmlCommentsStart, bufferClass, XML_COMMENTS_START_MASK);
+        }
+        if (lineCommentsStart == LINE_COMMENTS_START) {
+            detector = LINE_COMMENTS;
+            lineCommentsStart = EMPTY_CLASS;
+        }
+        if (complexCommentsStart == COMPLEX_COMMENTS_START) {
+            detector = detector == NO_DETECTOR ? COMPLEX_COMMENTS : detector;
+            complexCommentsStart = EMPTY_CLASS;
+        }
+        if (xmlCommentsStart == XML_COMMENTS_START) {
+            detector = detector == NO_DETECTOR ? XML_COMMENTS : detector;
+            xmlCommentsStart = EMPTY_CLASS;
+        }
+        if (depth == 0) {
+            if (symbolClass == BACK_SLASH_CLASS) {
+                isNextSpecial = true;
+            } else if (isNextSpecial) {
+                isNextSpecial = false;
+            } else if (symbolClass == QUOTE_CLASS && detector == NO_DETECTOR) {
+                detector = STRING;
+                quote = symbol;
+            }
+        }
+        position++;
+        final boolean result = detector != NO_DETECTOR;
+        if (result) {
+            if (depth == detectors.length) {
+                detectors = Arrays.copyOf(detectors, depth * 2);
+            }
+            detectors[depth++] = detector;
+        } else if (depth > 0 && isCommentsFinish(detectors[depth - 1], symbol, symbolClass)) {
+            depth--;
+        }
+        return result;
+    }
+
+    private boolean isCommentsFinish(byte detector, int symbol, int symbolClass) {
+        boolean result;
+        if (detector == LINE_COMMENTS) {
+            result = symbol == NEW_LINE;
+        } else if (detector == COMPLEX_COMMENTS) {
+            result = complexCommentsPreviousClass == ASTERISK_CLASS && symbolClass == SLASH_CLASS;
+            complexCommentsPreviousClass = result ? EMPTY_CLASS : symbolClass;
+        } else {
+            result = xmlCommentsFinish == XML_COMMENTS_FINISH;
+            if (result) {
+                xmlCommentsFinish = EMPTY_CLASS;
+            } else if (symbolClass != SPACE_CLASS) {
+                final int bufferClass = symbolClass > FINISH_CLASS ? OTHER_CLASS : symbolClass;
+                xmlCommentsFinish = push(xmlCommentsFinish, bufferClass, XML_COMMENTS_FINISH_MASK);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Skips ordinary symbols. Every symbol is added to buffers, so buffers do not match, until the first of them is
+     * shifted out; adding it once gives the same matches.
+     */
+    private void skipOthers(long limit) {
+        while (position < limit && read(position) != Text.END) {
+            final int last = (int) Math.min(chunkCount, limit - chunkStart);
+            int i = (int) (position - chunkStart);
+            while (i < last && getClass(chunk[i]) == OTHER_CLASS) {
+                i++;
+            }
+            position = chunkStart + i;
+            if (i < chunkCount) {
+                break;
+            }
+        }
+        lineCommentsStart = push(lineCommentsStart, OTHER_CLASS, COMMENTS_START_MASK);
+        complexCommentsStart = push(complexCommentsStart, OTHER_CLASS, COMMENTS_START_MASK);
+        xmlCommentsStart = push(xmlCommentsStart, OTHER_CLASS, XML_COMMENTS_START_MASK);
+        if (depth == 0) {
+            isNextSpecial = false;
+        } else if (detectors[depth - 1] == COMPLEX_COMMENTS) {
+            complexCommentsPreviousClass = OTHER_CLASS;
+        } else if (detectors[depth - 1] == XML_COMMENTS) {
+            xmlCommentsFinish = push(xmlCommentsFinish, OTHER_CLASS, XML_COMMENTS_FINISH_MASK);
+        }
+    }
+
+    /**
+     * Skips string up to closing quote (escaping is not taken into account inside string).
+     */
+    private void skipString(long limit) {
+        while (position < limit && read(position) != Text.END) {
+            final int last = (int) Math.min(chunkCount, limit - chunkStart);
+            int i = (int) (position - chunkStart);
+            while (i < last && chunk[i] != quote) {
+                i++;
+            }
+            position = chunkStart + i;
+            if (i < last) {
+                position++;
+                depth--;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Saves state before '&lt;' out of comments and strings (detectors are empty there).
+     */
+    private void save() {
+        savedLineCommentsStart = lineCommentsStart;
+        savedComplexCommentsStart = complexCommentsStart;
+        savedXmlCommentsStart = xmlCommentsStart;
+        savedXmlCommentsFinish = xmlCommentsFinish;
+        savedComplexCommentsPreviousClass = complexCommentsPreviousClass;
+        savedIsNextSpecial = isNextSpecial;
+    }
+
+    private void restore() {
+        lineCommentsStart = savedLineCommentsStart;
+        complexCommentsStart = savedComplexCommentsStart;
+        xmlCommentsStart = savedXmlCommentsStart;
+        xmlCommentsFinish = savedXmlCommentsFinish;
+        complexCommentsPreviousClass = savedComplexCommentsPreviousClass;
+        isNextSpecial = savedIsNextSpecial;
+        depth = 0;
+    }
+
+    /**
+     * Reads the first symbol after '&lt;' at position and spaces. Checked spaces are not read again for the same
+     * '&lt;', when scanning is continued.
+     */
+    private int readAfterSpaces() {
+        long index = checkedStartSymbolPosition == position ? checkedPosition : position + 1;
+        int symbol = text.read(index);
+        while (SPACE == symbol) {
+            index++;
+            symbol = text.read(index);
+        }
+        checkedStartSymbolPosition = position;
+        checkedPosition = index;
+        return symbol;
+    }
+
+    private int read(long index) {
+        int result;
+        if (index >= chunkStart && index < chunkStart + chunkCount) {
+            result = chunk[(int) (index - chunkStart)];
+        } else {
+            final int count = text.read(index, chunk, 0, chunk.length);
+            if (count == Text.END) {
+                chunkCount = 0;
+                result = Text.END;
+            } else {
+                chunkStart = index;
+                chunkCount = count;
+                result = chunk[0];
+            }
+        }
+        return result;
+    }
+
+    private static int getClass(int symbol) {
+        return symbol < CLASSES.length ? CLASSES[symbol] : OTHER_CLASS;
+    }
+
+    private static int push(int buffer, int symbolClass, int mask) {
+        return ((buffer << CLASS_BITS) | symbolClass) & mask;
+    }
+
+    private static int pack(int... classes) {
+        int result = EMPTY_CLASS;
+        for (int symbolClass : classes) {
+            result = (result << CLASS_BITS) | symbolClass;
+        }
+        return result;
+    }
+
+    private static byte[] createClasses() {
+        final byte[] result = new byte[128];
+        Arrays.fill(result, (byte) OTHER_CLASS);
+        result['/'] = SLASH_CLASS;
+        result['*'] = ASTERISK_CLASS;
+        result['<'] = START_CLASS;
+        result['!'] = EXCLAMATION_MARK_CLASS;
+        result['-'] = MINUS_CLASS;
+        result['>'] = FINISH_CLASS;
+        result[' '] = SPACE_CLASS;
+        result['\\'] = BACK_SLASH_CLASS;
+        result['\''] = QUOTE_CLASS;
+        result['"'] = QUOTE_CLASS;
+        result['\n'] = NEW_LINE_CLASS;
+        return result;
+    }
+}
@@ -0,0 +1,377 @@
+package nextextz.text.pack.lexer;
+
+import nextextz.text.pack.text.ByteText;
+import nextextz.text.pack.text.Text;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Extracts tokens from html like 'HtmlLexer', but by state machine with precomputed tables. Symbols are mapped to
+ * classes by one table, and names of special tags ('!--', 'script', 'style') are recognized by automaton over
+ * classes, so tag names are neither copied nor compared. Symbols are read by chunks.
+ */
+public class HtmlStateMachineLexer {
+    private static final int CHUNK_SIZE = 512;
+
+    private static final int OTHER_CLASS = 0;
+    private static final int SPACE_CLASS = 1;
+    private static final int START_CLASS = 2;
+    private static final int FINISH_CLASS = 3;
+    private static final int EXCLAMATION_MARK_CLASS = 4;
+    private static final int MINUS_CLASS = 5;
+    private static final String LETTERS = "scriptyle";
+    private static final int LETTER_CLASS = 6;
+    private static final int CLASS_COUNT = LETTER_CLASS + LETTERS.length();
+
+    private static final String[] SPECIAL_TAGS = {"!--", "script", "style"};
+    private static final int COMMENTS_TAG = 0;
+    private static final int SCRIPT_TAG = 1;
+    private static final int STYLE_TAG = 2;
+
+    private static final int NO_TAG = -1;
+    private static final int COMMENTS_FINISH_STATE = 2;
+
+    private static final byte[] CLASSES = createClasses();
+
+    private static final int[] TAG_TRANSITIONS;
+    private static final int[] TAG_ACCEPTS;
+    private static final int[] COMMENTS_TRANSITIONS = createCommentsTransitions();
+
+    static {
+        final int stateCount = getTagStateCount();
+        TAG_TRANSITIONS = new int[stateCount * CLASS_COUNT];
+        TAG_ACCEPTS = new int[stateCount];
+        createTagTransitions(TAG_TRANSITIONS, TAG_ACCEPTS);
+    }
+
+    private final Text text;
+    private final ByteText byteText;
+    private final HtmlLexerHandler handler;
+
+    private final char[] chunk = new char[CHUNK_SIZE];
+    private long chunkStart;
+    private int chunkCount;
+
+    private long position;
+    private HtmlLexer.Mode mode = HtmlLexer.Mode.MARKUP;
+
+    /**
+     * Creates new lexer.
+     *
+     * @param text    text (can not be null).
+     * @param handler handler (can not be null).
+     */
+    public HtmlStateMachineLexer(
+            Text text,
+            HtmlLexerHandler handler) {
+        checkNotNull(text);
+        checkNotNull(handler);
+
+        this.text = text;
+        this.byteText = text instanceof ByteText ? (ByteText) text : null;
+        this.handler = handler;
+    }
+
+    /**
+     * Executes getting next token.
+     */
+    public void execute() {
+        text.release(position);
+        HtmlLexer.Token result = HtmlLexer.Token.getEmpty();
+        final int symbol = read(position);
+        if (symbol != Text.END) {
+            final long startPosition = position;
+            final HtmlLexer.Mode currentMode = mode;
+            mode = HtmlLexer.Mode.MARKUP;
+            switch (currentMode) {
+                case STYLE:
+                    scanSpecialContent();
+                    result = createToken(HtmlLexer.TokenType.STYLE, startPosition, position);
+                    break;
+                case SCRIPT:
+                    scanSpecialContent();
+                    result = createToken(HtmlLexer.TokenType.SCRIPT, startPosition, position);
+                    break;
+                case COMMENTS:
+                    result = createToken(HtmlLexer.TokenType.COMMENTS, startPosition, scanComments());
+                    break;
+                default:
+                    final int symbolClass = CLASSES[symbol];
+                    if (symbolClass == START_CLASS || symbolClass == FINISH_CLASS) {
+                        scanTag();
+                        result = createToken(HtmlLexer.TokenType.TAG, startPosition, position);
+                    } else {
+                        scanContent();
+                        result = createToken(HtmlLexer.TokenType.CONTENT, startPosition, position);
+                    }
+                    break;
+            }
+        }
+        handler.handle(result);
+    }
+
+    /**
+     * Scans tag. Name of tag is a queue of symbols except spaces and '>': symbol is added to the tail, and every
+     * space or '>' removes the head and compares the rest with special tags. The rest is the last added symbols, so
+     * automaton and length of queue are enough for comparing.
+     */
+    private void scanTag() {
+        final long startPosition = position;
+        int state = 0;
+        int nameLength = 0;
+        for (; ; ) {
+            final int symbol = read(position);
+            if (symbol == Text.END) {
+                break;
+            }
+            final int symbolClass = CLASSES[symbol];
+            if (symbolClass == SPACE_CLASS || symbolClass == FINISH_CLASS) {
+                if (nameLength > 0) {
+                    nameLength--;
+                    final int tag = TAG_ACCEPTS[state];
+                    if (tag != NO_TAG && nameLength == SPECIAL_TAGS[tag].length()) {
+                        startSpecialContent(tag);
+                        break;
+                    }
+                }
+            } else {
+                nameLength++;
+                state = TAG_TRANSITIONS[state * CLASS_COUNT + symbolClass];
+            }
+            if (symbolClass == FINISH_CLASS || (symbolClass == START_CLASS && position != startPosition)) {
+                position++;
+                break;
+            }
+            position++;
+        }
+    }
+
+    private void startSpecialContent(int tag) {
+        if (tag == COMMENTS_TAG) {
+            mode = HtmlLexer.Mode.COMMENTS;
+        } else {
+            mode = tag == SCRIPT_TAG ? HtmlLexer.Mode.SCRIPT : HtmlLexer.Mode.STYLE;
+            for (; ; ) {
+                final int symbol = read(position);
+                if (symbol == Text.END) {
+                    break;
+                }
+                position++;
+                if (CLASSES[symbol] == FINISH_CLASS) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void scanContent() {
+        if (byteText != null) {
+            final long index = byteText.find(position, '<', '>');
+            position = index == -1 ? byteText.getLength() : index;
+        } else {
+            while (read(position) != Text.END) {
+                int i = (int) (position - chunkStart);
+                while (i < chunkCount) {
+                    final int symbolClass = CLASSES[chunk[i]];
+                    if (symbolClass == START_CLASS || symbolClass == FINISH_CLASS) {
+                        break;
+                    }
+                    i++;
+                }
+                position = chunkStart + i;
+                if (i < chunkCount) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans comments, which finish before the first '--' (position is moved after '--' and spaces).
+     *
+     * @return finish of comments.
+     */
+    private long scanComments() {
+        int state = 0;
+        long result;
+        for (; ; ) {
+            final int symbol = read(position);
+            result = position;
+            if (symbol == Text.END) {
+                break;
+            }
+            if (state == COMMENTS_FINISH_STATE) {
+                result = position - 2;
+                skipSpaces();
+                break;
+            }
+            state = COMMENTS_TRANSITIONS[state * CLASS_COUNT + CLASSES[symbol]];
+            position++;
+        }
+        return result;
+    }
+
+    private void scanSpecialContent() {
+        position = new HtmlSpecialContentScanner(text, position).scan();
+    }
+
+    private void skipSpaces() {
+        for (; ; ) {
+            final int symbol = read(position);
+            if (symbol == Text.END || CLASSES[symbol] != SPACE_CLASS) {
+                break;
+            }
+            position++;
+        }
+    }
+
+    private HtmlLexer.Token createToken(HtmlLexer.TokenType type, long startPosition, long finishPosition) {
+        final HtmlTag tag = type == HtmlLexer.TokenType.TAG
+                ? HtmlTag.find(text, startPosition, finishPosition) : HtmlTag.UNKNOWN;
+        return new HtmlLexer.Token(type, text, startPosition, finishPosition, tag);
+    }
+
+    private int read(long index) {
+        int result;
+        if (index >= chunkStart && index < chunkStart + chunkCount) {
+            result = chunk[(int) (index - chunkStart)];
+        } else {
+            final int count = text.read(index, chunk, 0, chunk.length);
+            if (count == Text.END) {
+                chunkCount = 0;
+                result = Text.END;
+            } else {
+                chunkStart = index;
+                chunkCount = count;
+                result = chunk[0];
+            }
+        }
+        return result;
+    }
+
+    private static byte[] createClasses() {
+        final byte[] result = new byte[Character.MAX_VALUE + 1];
+        for (int i = 0; i < result.length; i++) {
+            final char symbol = (char) i;
+            int symbolClass = OTHER_CLASS;
+            if (symbol == ' ') {
+                symbolClass = SPACE_CLASS;
+            } else if (symbol == '<') {
+                symbolClass = START_CLASS;
+            } else if (symbol == '>') {
+                symbolClass = FINISH_CLASS;
+            } else if (symbol == '!') {
+                symbolClass = EXCLAMATION_MARK_CLASS;
+            } else if (symbol == '-') {
+                symbolClass = MINUS_CLASS;
+            } else {
+                for (int j = 0; j < LETTERS.length(); j++) {
+                    if (isEqualIgnoreCase(symbol, LETTERS.charAt(j))) {
+                        symbolClass = LETTER_CLASS + j;
+                        break;
+                    }
+                }
+            }
+            result[i] = (byte) symbolClass;
+        }
+        return result;
+    }
+
+    /**
+     * Compares symbols like 'String.equalsIgnoreCase'.
+     */
+    private static boolean isEqualIgnoreCase(char first, char second) {
+        final char firstUpper = Character.toUpperCase(first);
+        final char secondUpper = Character.toUpperCase(second);
+        return first == second || firstUpper == secondUpper
+                || Character.toLowerCase(firstUpper) == Character.toLowerCase(secondUpper);
+    }
+
+    private static int getClass(char symbol) {
+        return symbol == '!' ? EXCLAMATION_MARK_CLASS : symbol == '-' ? MINUS_CLASS
+                : LETTER_CLASS + LETTERS.indexOf(symbol);
+    }
+
+    private static int getTagStateCount() {
+        int result = 1;
+        for (int i = 0; i < SPECIAL_TAGS.length; i++) {
+            final String tag = SPECIAL_TAGS[i];
+            int prefix = 0;
+            for (int j = 0; j < i; j++) {
+                prefix = Math.max(prefix, getCommonPrefix(tag, SPECIAL_TAGS[j]));
+            }
+            result += tag.length() - prefix;
+        }
+        return result;
+    }
+
+    private static int getCommonPrefix(String first, String second) {
+        int result = 0;
+        while (result < first.length() && result < second.length() && first.charAt(result) == second.charAt(result)) {
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * Creates automaton (Aho-Corasick), which is in accepting state, when added symbols finish by special tag.
+     */
+    private static void createTagTransitions(int[] transitions, int[] accepts) {
+        Arrays.fill(transitions, -1);
+        Arrays.fill(accepts, NO_TAG);
+        int stateCount = 1;
+        for (int i = 0; i < SPECIAL_TAGS.length; i++) {
+            int state = 0;
+            for (char symbol : SPECIAL_TAGS[i].toCharArray()) {
+                final int index = state * CLASS_COUNT + getClass(symbol);
+                if (transitions[index] == -1) {
+                    transitions[index] = stateCount++;
+                }
+                state = transitions[index];
+            }
+            accepts[state] = i;
+        }
+        final int[] failures = new int[accepts.length];
+        final Queue<Integer> states = new ArrayDeque<>();
+        for (int symbolClass = 0; symbolClass < CLASS_COUNT; symbolClass++) {
+            final int next = transitions[symbolClass];
+            if (next == -1) {
+                transitions[symbolClass] = 0;
+            } else {
+                failures[next] = 0;
+                states.add(next);
+            }
+        }
+        while (!states.isEmpty()) {
+            final int state = states.remove();
+            if (accepts[state] == NO_TAG) {
+                accepts[state] = accepts[failures[state]];
+            }
+            for (int symbolClass = 0; symbolClass < CLASS_COUNT; symbolClass++) {
+                final int index = state * CLASS_COUNT + symbolClass;
+                final int next = transitions[index];
+                final int failureNext = transitions[failures[state] * CLASS_COUNT + symbolClass];
+                if (next == -1) {
+                    transitions[index] = failureNext;
+                } else {
+                    failures[next] = failureNext;
+                    states.add(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates automaton, which counts '-' before current symbol (0, 1 or 2).
+     */
+    private static int[] createCommentsTransitions() {
+        final int[] result = new int[COMMENTS_FINISH_STATE * CLASS_COUNT];
+        result[MINUS_CLASS] = 1;
+        result[CLASS_COUNT + MINUS_CLASS] = COMMENTS_FINISH_STATE;
+        return result;
+    }
+}
@@ -0,0 +1,679 @@
+package nextextz.text.pack.lexer;
+
+import nextextz.text.pack.text.Text;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Known html elements. Names are found by perfect hash, which is built, when class is loaded, so tags are recognized
+ * without creating strings. Ordinal can be used as index of array.
+ */
+public enum HtmlTag {
+    /**
+     * Tag, which is not known, or token, which is not tag.
+     */
+    UNKNOWN,
+
+    /**
+     * 'a'.
+     */
+    A,
+    /**
+     * 'abbr'.
+     */
+    ABBR,
+    /**
+     * 'acronym'.
+     */
+    ACRONYM,
+    /**
+     * 'address'.
+     */
+    ADDRESS,
+    /**
+     * 'applet'.
+     */
+    APPLET,
+    /**
+     * 'area'.
+     */
+    AREA,
+    /**
+     * 'article'.
+     */
+    ARTICLE,
+    /**
+     * 'aside'.
+     */
+    ASIDE,
+    /**
+     * 'audio'.
+     */
+    AUDIO,
+    /**
+     * 'b'.
+     */
+    B,
+    /**
+     * 'base'.
+     */
+    BASE,
+    /**
+     * 'basefont'.
+     */
+    BASEFONT,
+    /**
+     * 'bdi'.
+     */
+    BDI,
+    /**
+     * 'bdo'.
+     */
+    BDO,
+    /**
+     * 'big'.
+     */
+    BIG,
+    /**
+     * 'blockquote'.
+     */
+    BLOCKQUOTE,
+    /**
+     * 'body'.
+     */
+    BODY,
+    /**
+     * 'br'.
+     */
+    BR,
+    /**
+     * 'button'.
+     */
+    BUTTON,
+    /**
+     * 'canvas'.
+     */
+    CANVAS,
+    /**
+     * 'caption'.
+     */
+    CAPTION,
+    /**
+     * 'center'.
+     */
+    CENTER,
+    /**
+     * 'cite'.
+     */
+    CITE,
+    /**
+     * 'code'.
+     */
+    CODE,
+    /**
+     * 'col'.
+     */
+    COL,
+    /**
+     * 'colgroup'.
+     */
+    COLGROUP,
+    /**
+     * 'data'.
+     */
+    DATA,
+    /**
+     * 'datalist'.
+     */
+    DATALIST,
+    /**
+     * 'dd'.
+     */
+    DD,
+    /**
+     * 'del'.
+     */
+    DEL,
+    /**
+     * 'details'.
+     */
+    DETAILS,
+    /**
+     * 'dfn'.
+     */
+    DFN,
+    /**
+     * 'dialog'.
+     */
+    DIALOG,
+    /**
+     * 'dir'.
+     */
+    DIR,
+    /**
+     * 'div'.
+     */
+    DIV,
+    /**
+     * 'dl'.
+     */
+    DL,
+    /**
+     * 'dt'.
+     */
+    DT,
+    /**
+     * 'em'.
+     */
+    EM,
+    /**
+     * 'embed'.
+     */
+    EMBED,
+    /**
+     * 'fieldset'.
+     */
+    FIELDSET,
+    /**
+     * 'figcaption'.
+     */
+    FIGCAPTION,
+    /**
+     * 'figure'.
+     */
+    FIGURE,
+    /**
+     * 'font'.
+     */
+    FONT,
+    /**
+     * 'footer'.
+     */
+    FOOTER,
+    /**
+     * 'form'.
+     */
+    FORM,
+    /**
+     * 'frame'.
+     */
+    FRAME,
+    /**
+     * 'frameset'.
+     */
+    FRAMESET,
+    /**
+     * 'h1'.
+     */
+    H1,
+    /**
+     * 'h2'.
+     */
+    H2,
+    /**
+     * 'h3'.
+     */
+    H3,
+    /**
+     * 'h4'.
+     */
+    H4,
+    /**
+     * 'h5'.
+     */
+    H5,
+    /**
+     * 'h6'.
+     */
+    H6,
+    /**
+     * 'head'.
+     */
+    HEAD,
+    /**
+     * 'header'.
+     */
+    HEADER,
+    /**
+     * 'hgroup'.
+     */
+    HGROUP,
+    /**
+     * 'hr'.
+     */
+    HR,
+    /**
+     * 'html'.
+     */
+    HTML,
+    /**
+     * 'i'.
+     */
+    I,
+    /**
+     * 'iframe'.
+     */
+    IFRAME,
+    /**
+     * 'img'.
+     */
+    IMG,
+    /**
+     * 'input'.
+     */
+    INPUT,
+    /**
+     * 'ins'.
+     */
+    INS,
+    /**
+     * 'isindex'.
+     */
+    ISINDEX,
+    /**
+     * 'kbd'.
+     */
+    KBD,
+    /**
+     * 'label'.
+     */
+    LABEL,
+    /**
+     * 'legend'.
+     */
+    LEGEND,
+    /**
+     * 'li'.
+     */
+    LI,
+    /**
+     * 'link'.
+     */
+    LINK,
+    /**
+     * 'main'.
+     */
+    MAIN,
+    /**
+     * 'map'.
+     */
+    MAP,
+    /**
+     * 'mark'.
+     */
+    MARK,
+    /**
+     * 'menu'.
+     */
+    MENU,
+    /**
+     * 'meta'.
+     */
+    META,
+    /**
+     * 'meter'.
+     */
+    METER,
+    /**
+     * 'nav'.
+     */
+    NAV,
+    /**
+     * 'noframes'.
+     */
+    NOFRAMES,
+    /**
+     * 'noscript'.
+     */
+    NOSCRIPT,
+    /**
+     * 'object'.
+     */
+    OBJECT,
+    /**
+     * 'ol'.
+     */
+    OL,
+    /**
+     * 'optgroup'.
+     */
+    OPTGROUP,
+    /**
+     * 'option'.
+     */
+    OPTION,
+    /**
+     * 'output'.
+     */
+    OUTPUT,
+    /**
+     * 'p'.
+     */
+    P,
+    /**
+     * 'param'.
+     */
+    PARAM,
+    /**
+     * 'picture'.
+     */
+    PICTURE,
+    /**
+     * 'pre'.
+     */
+    PRE,
+    /**
+     * 'progress'.
+     */
+    PROGRESS,
+    /**
+     * 'q'.
+     */
+    Q,
+    /**
+     * 'rp'.
+     */
+    RP,
+    /**
+     * 'rt'.
+     */
+    RT,
+    /**
+     * 'ruby'.
+     */
+    RUBY,
+    /**
+     * 's'.
+     */
+    S,
+    /**
+     * 'samp'.
+     */
+    SAMP,
+    /**
+     * 'script'.
+     */
+    SCRIPT,
+    /**
+     * 'section'.
+     */
+    SECTION,
+    /**
+     * 'select'.
+     */
+    SELECT,
+    /**
+     * 'small'.
+     */
+    SMALL,
+    /**
+     * 'source'.
+     */
+    SOURCE,
+    /**
+     * 'span'.
+     */
+    SPAN,
+    /**
+     * 'strike'.
+     */
+    STRIKE,
+    /**
+     * 'strong'.
+     */
+    STRONG,
+    /**
+     * 'style'.
+     */
+    STYLE,
+    /**
+     * 'sub'.
+     */
+    SUB,
+    /**
+     * 'summary'.
+     */
+    SUMMARY,
+    /**
+     * 'sup'.
+     */
+    SUP,
+    /**
+     * 'table'.
+     */
+    TABLE,
+    /**
+     * 'tbody'.
+     */
+    TBODY,
+    /**
+     * 'td'.
+     */
+    TD,
+    /**
+     * 'template'.
+     */
+    TEMPLATE,
+    /**
+     * 'textarea'.
+     */
+    TEXTAREA,
+    /**
+     * 'tfoot'.
+     */
+    TFOOT,
+    /**
+     * 'th'.
+     */
+    TH,
+    /**
+     * 'thead'.
+     */
+    THEAD,
+    /**
+     * 'time'.
+     */
+    TIME,
+    /**
+     * 'title'.
+     */
+    TITLE,
+    /**
+     * 'tr'.
+     */
+    TR,
+    /**
+     * 'track'.
+     */
+    TRACK,
+    /**
+     * 'tt'.
+     */
+    TT,
+    /**
+     * 'u'.
+     */
+    U,
+    /**
+     * 'ul'.
+     */
+    UL,
+    /**
+     * 'var'.
+     */
+    VAR,
+    /**
+     * 'video'.
+     */
+    VIDEO,
+    /**
+     * 'wbr'.
+     */
+    WBR;
+
+    private static final int TABLE_BITS = 12;
+    private static final int TABLE_MASK = (1 << TABLE_BITS) - 1;
+    private static final int MAX_NAME_LENGTH = 16;
+
+    private static final HtmlTag[] HASH_TABLE = new HtmlTag[1 << TABLE_BITS];
+    private static final int SEED = createTable(HASH_TABLE);
+
+    private final String tagName;
+
+    HtmlTag() {
+        this.tagName = name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns name of element in lower case.
+     *
+     * @return name (empty for 'UNKNOWN').
+     */
+    public String getTagName() {
+        return this == UNKNOWN ? "" : tagName;
+    }
+
+    /**
+     * Finds element by name. Case is ignored.
+     *
+     * @param name name (can not be null).
+     * @return element or 'UNKNOWN'.
+     */
+    public static HtmlTag forName(CharSequence name) {
+        checkNotNull(name);
+        HtmlTag result = UNKNOWN;
+        if (name.length() <= MAX_NAME_LENGTH) {
+            int hash = SEED;
+            boolean isValid = name.length() > 0;
+            for (int i = 0; isValid && i < name.length(); i++) {
+                final char symbol = name.charAt(i);
+                isValid = isNameSymbol(symbol);
+                hash = hash(hash, symbol);
+            }
+            if (isValid) {
+                final HtmlTag candidate = HASH_TABLE[mix(hash)];
+                if (candidate != null && candidate.matches(name)) {
+                    result = candidate;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds element of tag token. Name follows start symbol and optional slash; spaces before name are skipped.
+     * Name finishes at the end of text too, so finish can be after the end of text.
+     *
+     * @param text   text.
+     * @param start  start of tag.
+     * @param finish finish of tag (exclusive).
+     * @return element or 'UNKNOWN'.
+     */
+    static HtmlTag find(Text text, long start, long finish) {
+        HtmlTag result = UNKNOWN;
+        long i = start;
+        if (i < finish && text.read(i) == '<') {
+            i = skipSpaces(text, i + 1, finish);
+            if (i < finish && text.read(i) == '/') {
+                i = skipSpaces(text, i + 1, finish);
+            }
+            final long nameStart = i;
+            int hash = SEED;
+            boolean isValid = true;
+            for (; i < finish; i++) {
+                final int symbol = text.read(i);
+                if (symbol == Text.END || isNameFinish(symbol)) {
+                    break;
+                }
+                if (!isNameSymbol(symbol) || i - nameStart >= MAX_NAME_LENGTH) {
+                    isValid = false;
+                    break;
+                }
+                hash = hash(hash, (char) symbol);
+            }
+            if (isValid && i > nameStart) {
+                final HtmlTag candidate = HASH_TABLE[mix(hash)];
+                if (candidate != null && candidate.matches(text, nameStart, i)) {
+                    result = candidate;
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean matches(CharSequence name) {
+        boolean result = tagName.length() == name.length();
+        for (int i = 0; result && i < tagName.length(); i++) {
+            result = toLowerCase(name.charAt(i)) == tagName.charAt(i);
+        }
+        return result;
+    }
+
+    private boolean matches(Text text, long start, long finish) {
+        boolean result = tagName.length() == finish - start;
+        for (int i = 0; result && i < tagName.length(); i++) {
+            result = toLowerCase((char) text.read(start + i)) == tagName.charAt(i);
+        }
+        return result;
+    }
+
+    private static long skipSpaces(Text text, long index, long finish) {
+        long result = index;
+        while (result < finish && text.read(result) == ' ') {
+            result++;
+        }
+        return result;
+    }
+
+    private static boolean isNameFinish(int symbol) {
+        return symbol == ' ' || symbol == '>' || symbol == '/' || symbol == '<' || symbol == '\t' || symbol == '\n'
+                || symbol == '\r' || symbol == '\f';
+    }
+
+    private static boolean isNameSymbol(int symbol) {
+        return (symbol >= 'a' && symbol <= 'z') || (symbol >= 'A' && symbol <= 'Z') || (symbol >= '0' && symbol <= '9');
+    }
+
+    private static char toLowerCase(char symbol) {
+        return symbol >= 'A' && symbol <= 'Z' ? (char) (symbol + ('a' - 'A')) : symbol;
+    }
+
+    private static int hash(int hash, char symbol) {
+        return (hash ^ toLowerCase(symbol)) * 0x01000193;
+    }
+
+    private static int mix(int hash) {
+        return (hash ^ (hash >>> 15) ^ (hash >>> 27)) & TABLE_MASK;
+    }
+
+    /**
+     * Finds seed, which places every known name into its own cell.
+     */
+    private static int createTable(HtmlTag[] table) {
+        for (int seed = 1; ; seed++) {
+            boolean isPerfect = true;
+            for (HtmlTag tag : values()) {
+                if (tag == UNKNOWN) {
+                    continue;
+                }
+                int hash = seed;
+                for (int i = 0; i < tag.tagName.length(); i++) {
+                    hash = hash(hash, tag.tagName.charAt(i));
+                }
+                final int index = mix(hash);
+                if (table[index] != null) {
+                    isPerfect = false;
+                    break;
+                }
+                table[index] = tag;
+            }
+            if (isPerfect) {
+                return seed;
+            }
+            Arrays.fill(table, null);
+        }
+    }
+}
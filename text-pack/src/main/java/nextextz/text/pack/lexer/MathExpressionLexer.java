@@ -2,25 +2,29 @@ package nextextz.text.pack.lexer;
 
 import nextextz.text.pack.text.Text;
 
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Extracts tokens from math expressions. '(9+1)' -> {'(', '9', '+', '1', ')'}.
  */
-public class MathExpressionLexer {
+public class MathExpressionLexer implements Iterable<MathExpressionLexer.Token> {
     private final Text text;
     private final MathExpressionLexerHandler handler;
-    private final Collection<Character> numbers;
-    private final Collection<String> operations;
-    private final Collection<Character> brackets;
-    private final Character numberSeparator;
 
-    private final Map<Integer, Collection<Character>> distributedOperations;
+    private final BitSet numbers;
+    private final BitSet brackets;
+    private final BitSet[] operations;
+    private final char numberSeparator;
 
     private long position;
+    private Token nextToken;
 
     /**
      * Constructs new object.
@@ -39,8 +43,35 @@ public class MathExpressionLexer {
             Collection<String> operations,
             Collection<Character> brackets,
             Character numberSeparator) {
+        this(text, numbers, operations, brackets, numberSeparator, checkNotNull(handler));
+    }
+
+    /**
+     * Constructs new object, which is read by 'hasNext' and 'next' (or by iterator) instead of 'execute'.
+     *
+     * @param text            text (can not be null).
+     * @param numbers         numbers (can not be null).
+     * @param operations      operations (can not be null)
+     * @param brackets        brackets (can not be null)
+     * @param numberSeparator numberSeparator (can not be null)
+     */
+    public MathExpressionLexer(
+            Text text,
+            Collection<Character> numbers,
+            Collection<String> operations,
+            Collection<Character> brackets,
+            Character numberSeparator) {
+        this(text, numbers, operations, brackets, numberSeparator, null);
+    }
+
+    private MathExpressionLexer(
+            Text text,
+            Collection<Character> numbers,
+            Collection<String> operations,
+            Collection<Character> brackets,
+            Character numberSeparator,
+            MathExpressionLexerHandler handler) {
         checkNotNull(text);
-        checkNotNull(handler);
         checkNotNull(numbers);
         checkNotNull(operations);
         checkNotNull(brackets);
@@ -48,22 +79,78 @@ public class MathExpressionLexer {
 
         this.text = text;
         this.handler = handler;
-        this.numbers = numbers;
-        this.operations = operations;
-        this.brackets = brackets;
+        this.numbers = Utils.createSymbolSet(numbers);
+        this.brackets = Utils.createSymbolSet(brackets);
+        this.operations = createOperations(Utils.distribute(operations));
         this.numberSeparator = numberSeparator;
-
-        this.distributedOperations = Utils.distribute(this.operations);
     }
 
     /**
      * Executes calculations.
      */
     public void execute() {
+        checkState(handler != null, "Lexer has no handler");
+        handler.handle(scan());
+    }
+
+    /**
+     * Checks next token.
+     *
+     * @return true, if there is next token (not empty).
+     */
+    public boolean hasNext() {
+        if (nextToken == null) {
+            nextToken = scan();
+        }
+        return nextToken.getType() != TokenType.EMPTY;
+    }
+
+    /**
+     * Returns next token.
+     *
+     * @return token.
+     * @throws NoSuchElementException if there is no token.
+     */
+    public Token next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Token result = nextToken;
+        nextToken = null;
+        return result;
+    }
+
+    /**
+     * Returns iterator, which reads tokens from lexer. Tokens are read once, so all iterators share position.
+     *
+     * @return iterator.
+     */
+    @Override
+    public Iterator<Token> iterator() {
+        return new Iterator<Token>() {
+            @Override
+            public boolean hasNext() {
+                return MathExpressionLexer.this.hasNext();
+            }
+
+            @Override
+            public Token next() {
+                return MathExpressionLexer.this.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private Token scan() {
+        text.release(position);
         Token result = Token.getEmpty();
         for (; ; ) {
-            final Character symbol = getSymbol();
-            if (symbol == null) {
+            final int symbol = read();
+            if (symbol == Text.END) {
                 break;
             }
             if (isNumberStart(symbol)) {
@@ -78,73 +165,74 @@ public class MathExpressionLexer {
             }
             makeStep();
         }
-        handler.handle(result);
+        return result;
     }
 
     private Token getNumber() {
-        final StringBuilder buffer = new StringBuilder();
+        final long startPosition = position;
         for (; ; ) {
-            final Character symbol = getSymbol();
-            if (symbol == null) {
+            final int symbol = read();
+            if (symbol == Text.END) {
                 break;
             }
-            if (numbers.contains(symbol) || numberSeparator == symbol) {
-                buffer.append(symbol);
-            } else {
+            if (!numbers.get(symbol) && numberSeparator != symbol) {
                 break;
             }
             makeStep();
         }
-        return Token.createNumber(buffer.toString());
+        return Token.createNumber(getValue(startPosition));
     }
 
     private Token getOperation() {
-        final StringBuilder buffer = new StringBuilder();
+        final long startPosition = position;
         int i = 0;
         for (; ; ) {
-            final Character symbol = getSymbol();
-            if (symbol == null) {
+            final int symbol = read();
+            if (symbol == Text.END) {
                 break;
             }
-            final Collection<Character> characters = distributedOperations.get(i);
-            if (characters != null && characters.contains(symbol)) {
-                buffer.append(symbol);
-            } else {
+            if (i >= operations.length || !operations[i].get(symbol)) {
                 break;
             }
             i++;
             makeStep();
         }
-        return Token.createOperation(buffer.toString());
+        return Token.createOperation(getValue(startPosition));
     }
 
     private Token getBracket() {
-        final Character symbol = getSymbol();
+        final int symbol = read();
         makeStep();
-        return Token.createBracket(String.valueOf(symbol));
+        return Token.createBracket(String.valueOf((char) symbol));
     }
 
-    private boolean isNumberStart(Character symbol) {
-        return numbers.contains(symbol);
+    private boolean isNumberStart(int symbol) {
+        return numbers.get(symbol);
     }
 
-    private boolean isOperationStart(Character symbol) {
-        Boolean result = false;
-        for (String operation : operations) {
-            if (operation.startsWith(String.valueOf(symbol))) {
-                result = true;
-                break;
-            }
-        }
-        return result;
+    private boolean isOperationStart(int symbol) {
+        return operations.length > 0 && operations[0].get(symbol);
     }
 
-    private boolean isBracketStart(Character symbol) {
-        return brackets.contains(symbol);
+    private boolean isBracketStart(int symbol) {
+        return brackets.get(symbol);
+    }
+
+    private int read() {
+        return text.read(position);
+    }
+
+    private static BitSet[] createOperations(Map<Integer, Collection<Character>> distributedOperations) {
+        final BitSet[] result = new BitSet[distributedOperations.size()];
+        for (int i = 0; i < result.length; i++) {
+            final Collection<Character> characters = distributedOperations.get(i);
+            result[i] = Utils.createSymbolSet(characters);
+        }
+        return result;
     }
 
-    private Character getSymbol() {
-        return text.getSymbol(position);
+    private String getValue(long startPosition) {
+        return text.subSequence(startPosition, position).toString();
     }
 
     private void makeStep() {
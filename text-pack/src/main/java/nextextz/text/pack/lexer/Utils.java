@@ -4,6 +4,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Map;
 
@@ -40,4 +41,21 @@ public final class Utils {
         }
         return result;
     }
+
+    /**
+     * Creates set of symbols, which can be checked without boxing.
+     *
+     * @param symbols symbols.
+     * @return set.
+     */
+    public static BitSet createSymbolSet(Collection<Character> symbols) {
+        checkNotNull(symbols);
+        final BitSet result = new BitSet();
+        for (Character symbol : symbols) {
+            if (symbol != null) {
+                result.set(symbol);
+            }
+        }
+        return result;
+    }
 }
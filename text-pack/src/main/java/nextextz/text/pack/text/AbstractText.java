@@ -0,0 +1,85 @@
+package nextextz.text.pack.text;
+
+import java.nio.CharBuffer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+/**
+ * Contains common part of 'Text'.
+ */
+abstract class AbstractText implements Text {
+    @Override
+    public Character getSymbol(long index) {
+        Character result = null;
+        final int symbol = read(index);
+        if (symbol != END) {
+            result = (char) symbol;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(long index, char[] buffer, int offset, int length) {
+        checkNotNull(buffer);
+        checkPositionIndexes(offset, offset + length, buffer.length);
+        int count = 0;
+        while (count < length) {
+            final int symbol = read(index + count);
+            if (symbol == END) {
+                break;
+            }
+            buffer[offset + count] = (char) symbol;
+            count++;
+        }
+        return count == 0 && length > 0 ? END : count;
+    }
+
+    @Override
+    public int read(long index, CharBuffer buffer) {
+        checkNotNull(buffer);
+        int result;
+        if (buffer.hasArray()) {
+            result = read(index, buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            if (result != END) {
+                buffer.position(buffer.position() + result);
+            }
+        } else {
+            final boolean isEmpty = !buffer.hasRemaining();
+            int count = 0;
+            while (buffer.hasRemaining()) {
+                final int symbol = read(index + count);
+                if (symbol == END) {
+                    break;
+                }
+                buffer.put((char) symbol);
+                count++;
+            }
+            result = count == 0 && !isEmpty ? END : count;
+        }
+        return result;
+    }
+
+    @Override
+    public CharSequence subSequence(long start, long finish) {
+        checkRange(start, finish, getLength());
+        return new TextSequence(this, start, (int) (finish - start));
+    }
+
+    @Override
+    public void release(long position) {
+    }
+
+    /**
+     * Checks range of text.
+     *
+     * @param start  start.
+     * @param finish finish.
+     * @param length length of text.
+     */
+    static void checkRange(long start, long finish, long length) {
+        if (start < 0 || finish < start || finish > length || finish - start > Integer.MAX_VALUE) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + finish + ") is out of text");
+        }
+    }
+}
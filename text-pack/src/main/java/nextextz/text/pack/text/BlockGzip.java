@@ -0,0 +1,46 @@
+package nextextz.text.pack.text;
+
+/**
+ * Contains constants of 'BGZF' format: every block is gzip member, which has extra field 'BC' with its size.
+ */
+final class BlockGzip {
+    private BlockGzip() {
+    }
+
+    static final int ID1 = 0x1F;
+    static final int ID2 = 0x8B;
+    static final int DEFLATE = 8;
+
+    static final int FLAG_HEADER_CRC = 2;
+    static final int FLAG_EXTRA = 4;
+    static final int FLAG_NAME = 8;
+    static final int FLAG_COMMENT = 16;
+
+    static final int SUBFIELD_ID1 = 'B';
+    static final int SUBFIELD_ID2 = 'C';
+
+    /**
+     * Size of fixed part of header.
+     */
+    static final int HEADER_SIZE = 12;
+
+    /**
+     * Size of header, which is written by 'BlockGzipOutputStream'.
+     */
+    static final int BLOCK_HEADER_SIZE = 18;
+
+    /**
+     * Size of trailer: crc and size of uncompressed data.
+     */
+    static final int TRAILER_SIZE = 8;
+
+    /**
+     * Max size of block.
+     */
+    static final int MAX_BLOCK_SIZE = 65536;
+
+    /**
+     * Max size of uncompressed data in block, so compressed data always fits into block.
+     */
+    static final int MAX_DATA_SIZE = 65280;
+}
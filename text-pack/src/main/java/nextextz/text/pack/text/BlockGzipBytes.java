@@ -0,0 +1,257 @@
+package nextextz.text.pack.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Contains bytes of file in 'BGZF' format. Index of blocks is built, when file is opened: only headers and
+ * trailers of blocks are read. Blocks are decompressed, when they are read, and only a few last decompressed blocks
+ * are held.
+ */
+class BlockGzipBytes implements CloseableBytes {
+    static final int DEFAULT_CACHE_SIZE = 8;
+
+    private final FileChannel channel;
+
+    private long[] blockPositions = new long[16];
+    private int[] blockSizes = new int[16];
+    private long[] blockStarts = new long[16];
+    private int blockCount;
+    private long size;
+
+    private final Map<Integer, byte[]> cache;
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer compressed = ByteBuffer.allocate(BlockGzip.MAX_BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private int currentBlock = -1;
+    private byte[] currentData;
+    private ByteBuffer currentBuffer;
+    private long currentStart;
+
+    public BlockGzipBytes(Path path) throws IOException {
+        this(path, DEFAULT_CACHE_SIZE);
+    }
+
+    BlockGzipBytes(Path path, final int cacheSize) throws IOException {
+        checkNotNull(path);
+        checkArgument(cacheSize > 0);
+
+        this.cache = new LinkedHashMap<Integer, byte[]>(cacheSize + 1, 1.0f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, byte[]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            buildIndex();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public byte get(long index) {
+        selectBlock(index);
+        return currentData[(int) (index - currentStart)];
+    }
+
+    @Override
+    public long indexOf(long index, byte first, byte second) {
+        for (long i = Math.max(index, 0); i < size; ) {
+            selectBlock(i);
+            final int j = ByteScanner.indexOf(
+                    currentBuffer, (int) (i - currentStart), currentData.length, first, second);
+            if (j != -1) {
+                return currentStart + j;
+            }
+            i = currentStart + currentData.length;
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        cache.clear();
+        currentBlock = -1;
+        currentData = null;
+        currentBuffer = null;
+        inflater.end();
+        channel.close();
+    }
+
+    /**
+     * Returns count of blocks with data.
+     *
+     * @return count.
+     */
+    int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Returns count of decompressed blocks, which are held.
+     *
+     * @return count.
+     */
+    int getCachedBlockCount() {
+        return cache.size();
+    }
+
+    private void selectBlock(long index) {
+        if (currentBlock != -1 && index >= currentStart && index < currentStart + currentData.length) {
+            return;
+        }
+        int block = Arrays.binarySearch(blockStarts, 0, blockCount, index);
+        if (block < 0) {
+            block = -block - 2;
+        }
+        byte[] data = cache.get(block);
+        if (data == null) {
+            data = inflate(block);
+            cache.put(block, data);
+        }
+        currentBlock = block;
+        currentData = data;
+        currentBuffer = ByteBuffer.wrap(data).order(ByteOrder.nativeOrder());
+        currentStart = blockStarts[block];
+    }
+
+    private void buildIndex() throws IOException {
+        final long fileSize = channel.size();
+        final ByteBuffer header = ByteBuffer.allocate(BlockGzip.MAX_BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        long position = 0;
+        while (position < fileSize) {
+            header.clear();
+            header.limit(BlockGzip.HEADER_SIZE);
+            readFully(header, position);
+            checkHeader(header, position);
+            final int extraSize = header.getShort(10) & 0xFFFF;
+            header.limit(BlockGzip.HEADER_SIZE + extraSize);
+            readFully(header, position + BlockGzip.HEADER_SIZE);
+            final int blockSize = findBlockSize(header, extraSize, position);
+
+            header.clear();
+            header.limit(4);
+            readFully(header, position + blockSize - 4);
+            final long dataSize = header.getInt(0) & 0xFFFFFFFFL;
+            if (dataSize > 0) {
+                addBlock(position, blockSize, size);
+                size += dataSize;
+            }
+            position += blockSize;
+        }
+    }
+
+    private void addBlock(long position, int blockSize, long start) {
+        if (blockCount == blockPositions.length) {
+            blockPositions = Arrays.copyOf(blockPositions, blockCount * 2);
+            blockSizes = Arrays.copyOf(blockSizes, blockCount * 2);
+            blockStarts = Arrays.copyOf(blockStarts, blockCount * 2);
+        }
+        blockPositions[blockCount] = position;
+        blockSizes[blockCount] = blockSize;
+        blockStarts[blockCount] = start;
+        blockCount++;
+    }
+
+    private byte[] inflate(int block) {
+        final long position = blockPositions[block];
+        final int blockSize = blockSizes[block];
+        final long start = blockStarts[block];
+        final long finish = block + 1 < blockCount ? blockStarts[block + 1] : size;
+        final byte[] result = new byte[(int) (finish - start)];
+        try {
+            compressed.clear();
+            compressed.limit(blockSize);
+            readFully(compressed, position);
+            final int flags = compressed.get(3) & 0xFF;
+            final int extraSize = compressed.getShort(10) & 0xFFFF;
+            final int dataStart = skipOptionalFields(compressed, flags, BlockGzip.HEADER_SIZE + extraSize);
+            inflater.reset();
+            inflater.setInput(compressed.array(), dataStart, blockSize - BlockGzip.TRAILER_SIZE - dataStart);
+            int count = 0;
+            while (count < result.length && !inflater.finished()) {
+                final int size = inflater.inflate(result, count, result.length - count);
+                if (size == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                count += size;
+            }
+            crc.reset();
+            crc.update(result, 0, count);
+            if (count != result.length || (int) crc.getValue() != compressed.getInt(blockSize - 8)) {
+                throw new TextException("Block at " + position + " is corrupted");
+            }
+        } catch (IOException | DataFormatException e) {
+            throw new TextException("Block at " + position + " can not be decompressed", e);
+        }
+        return result;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            final int size = channel.read(buffer, position);
+            if (size < 0) {
+                throw new IOException("Unexpected end of file at " + position);
+            }
+            position += size;
+        }
+    }
+
+    private static void checkHeader(ByteBuffer header, long position) throws IOException {
+        if ((header.get(0) & 0xFF) != BlockGzip.ID1 || (header.get(1) & 0xFF) != BlockGzip.ID2
+                || header.get(2) != BlockGzip.DEFLATE || (header.get(3) & BlockGzip.FLAG_EXTRA) == 0) {
+            throw new IOException("Block at " + position + " is not in BGZF format");
+        }
+    }
+
+    private static int findBlockSize(ByteBuffer header, int extraSize, long position) throws IOException {
+        int offset = BlockGzip.HEADER_SIZE;
+        final int finish = BlockGzip.HEADER_SIZE + extraSize;
+        while (offset + 4 <= finish) {
+            final int subfieldSize = header.getShort(offset + 2) & 0xFFFF;
+            if (header.get(offset) == BlockGzip.SUBFIELD_ID1 && header.get(offset + 1) == BlockGzip.SUBFIELD_ID2
+                    && subfieldSize == 2) {
+                return (header.getShort(offset + 4) & 0xFFFF) + 1;
+            }
+            offset += 4 + subfieldSize;
+        }
+        throw new IOException("Block at " + position + " does not contain size");
+    }
+
+    private static int skipOptionalFields(ByteBuffer block, int flags, int offset) {
+        if ((flags & BlockGzip.FLAG_NAME) != 0) {
+            while (block.get(offset++) != 0) {
+            }
+        }
+        if ((flags & BlockGzip.FLAG_COMMENT) != 0) {
+            while (block.get(offset++) != 0) {
+            }
+        }
+        if ((flags & BlockGzip.FLAG_HEADER_CRC) != 0) {
+            offset += 2;
+        }
+        return offset;
+    }
+}
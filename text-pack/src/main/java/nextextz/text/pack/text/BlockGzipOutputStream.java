@@ -0,0 +1,148 @@
+package nextextz.text.pack.text;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Writes data compressed by blocks in 'BGZF' format. Result is ordinary gzip file (it can be read by 'gzip'), and
+ * it can be read by 'Factory.createBlockGzipText' without decompressing of whole file.
+ */
+public class BlockGzipOutputStream extends FilterOutputStream {
+    private static final byte[] EMPTY_BLOCK = {
+            0x1F, (byte) 0x8B, 8, 4, 0, 0, 0, 0, 0, (byte) 0xFF, 6, 0, 'B', 'C', 2, 0, 0x1B, 0,
+            3, 0, 0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private final Deflater deflater;
+    private final Deflater storer = new Deflater(Deflater.NO_COMPRESSION, true);
+    private final CRC32 crc = new CRC32();
+
+    private final byte[] data = new byte[BlockGzip.MAX_DATA_SIZE];
+    private final byte[] block = new byte[BlockGzip.MAX_BLOCK_SIZE];
+    private int count;
+
+    private boolean isClosed;
+
+    /**
+     * Creates new stream with default compression level.
+     *
+     * @param out stream for compressed data (can not be null).
+     */
+    public BlockGzipOutputStream(OutputStream out) {
+        this(out, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates new stream.
+     *
+     * @param out   stream for compressed data (can not be null).
+     * @param level compression level.
+     */
+    public BlockGzipOutputStream(OutputStream out, int level) {
+        super(checkNotNull(out));
+        this.deflater = new Deflater(level, true);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == data.length) {
+            writeBlock();
+        }
+        data[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count == data.length) {
+                writeBlock();
+            }
+            final int size = Math.min(len, data.length - count);
+            System.arraycopy(b, off, data, count, size);
+            count += size;
+            off += size;
+            len -= size;
+        }
+    }
+
+    /**
+     * Writes current block and flushes stream. Every call creates new block.
+     *
+     * @throws IOException if data can not be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (count > 0) {
+            writeBlock();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!isClosed) {
+            isClosed = true;
+            try {
+                if (count > 0) {
+                    writeBlock();
+                }
+                out.write(EMPTY_BLOCK);
+            } finally {
+                deflater.end();
+                storer.end();
+                out.close();
+            }
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        deflater.reset();
+        deflater.setInput(data, 0, count);
+        deflater.finish();
+        final int capacity = block.length - BlockGzip.BLOCK_HEADER_SIZE - BlockGzip.TRAILER_SIZE;
+        int size = deflater.deflate(block, BlockGzip.BLOCK_HEADER_SIZE, capacity);
+        if (!deflater.finished()) {
+            // Data can not be compressed, so it is stored.
+            storer.reset();
+            storer.setInput(data, 0, count);
+            storer.finish();
+            size = storer.deflate(block, BlockGzip.BLOCK_HEADER_SIZE, capacity);
+        }
+        crc.reset();
+        crc.update(data, 0, count);
+
+        final int blockSize = BlockGzip.BLOCK_HEADER_SIZE + size + BlockGzip.TRAILER_SIZE;
+        block[0] = (byte) BlockGzip.ID1;
+        block[1] = (byte) BlockGzip.ID2;
+        block[2] = BlockGzip.DEFLATE;
+        block[3] = BlockGzip.FLAG_EXTRA;
+        writeInt(block, 4, 0);
+        block[8] = 0;
+        block[9] = (byte) 0xFF;
+        writeShort(block, 10, 6);
+        block[12] = BlockGzip.SUBFIELD_ID1;
+        block[13] = BlockGzip.SUBFIELD_ID2;
+        writeShort(block, 14, 2);
+        writeShort(block, 16, blockSize - 1);
+        writeInt(block, blockSize - BlockGzip.TRAILER_SIZE, (int) crc.getValue());
+        writeInt(block, blockSize - BlockGzip.TRAILER_SIZE + 4, count);
+
+        out.write(block, 0, blockSize);
+        count = 0;
+    }
+
+    private static void writeShort(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >>> 8);
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value) {
+        writeShort(buffer, offset, value);
+        writeShort(buffer, offset + 2, value >>> 16);
+    }
+}
@@ -0,0 +1,39 @@
+package nextextz.text.pack.text;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Contains bytes of buffer from its position to its limit.
+ */
+class BufferBytes implements Bytes {
+    private final ByteBuffer buffer;
+    private final int size;
+
+    public BufferBytes(ByteBuffer buffer) {
+        checkNotNull(buffer);
+        this.buffer = buffer.slice().order(ByteOrder.nativeOrder());
+        this.size = this.buffer.remaining();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public byte get(long index) {
+        return buffer.get((int) index);
+    }
+
+    @Override
+    public long indexOf(long index, byte first, byte second) {
+        long result = -1;
+        if (index < size) {
+            result = ByteScanner.indexOf(buffer, (int) Math.max(index, 0), size, first, second);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package nextextz.text.pack.text;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Finds bytes in buffers by words: eight bytes are read as one 'long' and compared at once (SWAR).
+ */
+final class ByteScanner {
+    private static final int WORD_SIZE = 8;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private ByteScanner() {
+    }
+
+    /**
+     * Finds first of two bytes in range of buffer. Buffer position and limit are not used.
+     *
+     * @param buffer buffer.
+     * @param start  start of range.
+     * @param finish finish of range (exclusive).
+     * @param first  first byte.
+     * @param second second byte.
+     * @return index of found byte or -1, if there is no such byte.
+     */
+    static int indexOf(ByteBuffer buffer, int start, int finish, byte first, byte second) {
+        final long firstPattern = ONES * (first & 0xFF);
+        final long secondPattern = ONES * (second & 0xFF);
+        final boolean isLittleEndian = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+        int i = start;
+        while (i + WORD_SIZE <= finish) {
+            final long word = buffer.getLong(i);
+            final long found = findZeroBytes(word ^ firstPattern) | findZeroBytes(word ^ secondPattern);
+            if (found != 0) {
+                return i + (isLittleEndian ? Long.numberOfTrailingZeros(found) : Long.numberOfLeadingZeros(found)) / 8;
+            }
+            i += WORD_SIZE;
+        }
+        while (i < finish) {
+            final byte value = buffer.get(i);
+            if (value == first || value == second) {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns word, where high bit of every zero byte is set and other bits are cleared.
+     */
+    private static long findZeroBytes(long word) {
+        return ~(((word & LOW_BITS) + LOW_BITS) | word | LOW_BITS);
+    }
+}
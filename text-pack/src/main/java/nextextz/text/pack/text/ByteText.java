@@ -0,0 +1,33 @@
+package nextextz.text.pack.text;
+
+import java.nio.charset.Charset;
+
+/**
+ * Text, where every symbol is one byte. Allows to work with bytes directly.
+ */
+public interface ByteText extends Text {
+    /**
+     * Returns charset.
+     *
+     * @return charset.
+     */
+    Charset getCharset();
+
+    /**
+     * Returns byte without decoding.
+     *
+     * @param index index.
+     * @return byte (from 0 to 255) or 'END', if there is no byte.
+     */
+    int readByte(long index);
+
+    /**
+     * Finds first of two symbols. Bytes are compared, so it is faster than reading of symbols.
+     *
+     * @param index  index to start from.
+     * @param first  first symbol.
+     * @param second second symbol.
+     * @return index of found symbol or -1, if there is no such symbol.
+     */
+    long find(long index, char first, char second);
+}
@@ -0,0 +1,31 @@
+package nextextz.text.pack.text;
+
+/**
+ * Contains bytes, which are addressed by 64-bit indexes.
+ */
+interface Bytes {
+    /**
+     * Returns size.
+     *
+     * @return size in bytes.
+     */
+    long size();
+
+    /**
+     * Returns byte.
+     *
+     * @param index index (has to be less than size).
+     * @return byte.
+     */
+    byte get(long index);
+
+    /**
+     * Finds first of two bytes.
+     *
+     * @param index  index to start from.
+     * @param first  first byte.
+     * @param second second byte.
+     * @return index of found byte or -1, if there is no such byte.
+     */
+    long indexOf(long index, byte first, byte second);
+}
@@ -0,0 +1,52 @@
+package nextextz.text.pack.text;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+/**
+ * Text based on char sequence. Symbols are not copied.
+ */
+class CharSequenceText extends AbstractText {
+    private final CharSequence value;
+
+    CharSequenceText(CharSequence value) {
+        checkNotNull(value);
+        this.value = value;
+    }
+
+    @Override
+    public int read(long index) {
+        int result = END;
+        if (index < value.length() && index >= 0) {
+            result = value.charAt((int) index);
+        }
+        return result;
+    }
+
+    @Override
+    public int read(long index, char[] buffer, int offset, int length) {
+        checkNotNull(buffer);
+        checkPositionIndexes(offset, offset + length, buffer.length);
+        int result = END;
+        if (index < value.length() && index >= 0) {
+            result = (int) Math.min(length, value.length() - index);
+            for (int i = 0; i < result; i++) {
+                buffer[offset + i] = value.charAt((int) index + i);
+            }
+        } else if (length == 0) {
+            result = 0;
+        }
+        return result;
+    }
+
+    @Override
+    public CharSequence subSequence(long start, long finish) {
+        checkRange(start, finish, value.length());
+        return value.subSequence((int) start, (int) finish);
+    }
+
+    @Override
+    public long getLength() {
+        return value.length();
+    }
+}
@@ -0,0 +1,9 @@
+package nextextz.text.pack.text;
+
+import java.io.Closeable;
+
+/**
+ * Bytes, which hold resources (files, channels) and have to be closed.
+ */
+interface CloseableBytes extends Bytes, Closeable {
+}
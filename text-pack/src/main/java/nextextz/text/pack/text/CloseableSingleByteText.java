@@ -0,0 +1,21 @@
+package nextextz.text.pack.text;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Text over bytes, which have to be closed, for charsets, where every symbol is one byte.
+ */
+class CloseableSingleByteText extends SingleByteText implements CloseableText {
+    private final CloseableBytes bytes;
+
+    public CloseableSingleByteText(CloseableBytes bytes, Charset charset) {
+        super(bytes, charset);
+        this.bytes = bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        bytes.close();
+    }
+}
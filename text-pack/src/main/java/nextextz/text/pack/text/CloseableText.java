@@ -0,0 +1,9 @@
+package nextextz.text.pack.text;
+
+import java.io.Closeable;
+
+/**
+ * Text, which holds resources (files, channels) and has to be closed.
+ */
+public interface CloseableText extends Text, Closeable {
+}
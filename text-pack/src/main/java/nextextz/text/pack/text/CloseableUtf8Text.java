@@ -0,0 +1,20 @@
+package nextextz.text.pack.text;
+
+import java.io.IOException;
+
+/**
+ * Text over bytes in 'UTF-8', which have to be closed.
+ */
+class CloseableUtf8Text extends Utf8Text implements CloseableText {
+    private final CloseableBytes bytes;
+
+    public CloseableUtf8Text(CloseableBytes bytes) {
+        super(bytes);
+        this.bytes = bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        bytes.close();
+    }
+}
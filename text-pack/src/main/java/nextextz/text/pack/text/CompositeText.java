@@ -0,0 +1,143 @@
+package nextextz.text.pack.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+/**
+ * Text, which consists of segments. Segments are not copied: position is mapped to segment by offsets of segments,
+ * and the last used segment is remembered, so sequential reading does not search. Text is not thread safe.
+ */
+class CompositeText extends AbstractText {
+    private final Text[] segments;
+    private final long[] starts;
+    private final long length;
+    private int current;
+    private int released;
+
+    /**
+     * Creates text. Lengths of segments are taken once, so segments must not change. Empty segments are skipped.
+     *
+     * @param segments segments (can not be null).
+     */
+    CompositeText(List<? extends Text> segments) {
+        checkNotNull(segments);
+        final List<Text> nonEmptySegments = new ArrayList<>(segments.size());
+        final List<Long> segmentStarts = new ArrayList<>(segments.size());
+        long position = 0;
+        for (Text segment : segments) {
+            checkNotNull(segment);
+            final long segmentLength = segment.getLength();
+            if (segmentLength > 0) {
+                nonEmptySegments.add(segment);
+                segmentStarts.add(position);
+                position += segmentLength;
+            }
+        }
+        this.segments = nonEmptySegments.toArray(new Text[nonEmptySegments.size()]);
+        this.starts = new long[this.segments.length];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = segmentStarts.get(i);
+        }
+        this.length = position;
+    }
+
+    @Override
+    public int read(long index) {
+        int result = END;
+        if (index < length && index >= 0) {
+            final int segment = selectSegment(index);
+            result = segments[segment].read(index - starts[segment]);
+        }
+        return result;
+    }
+
+    @Override
+    public int read(long index, char[] buffer, int offset, int length) {
+        checkNotNull(buffer);
+        checkPositionIndexes(offset, offset + length, buffer.length);
+        int result = END;
+        if (index < this.length && index >= 0) {
+            result = 0;
+            while (result < length && index + result < this.length) {
+                final long position = index + result;
+                final int segment = selectSegment(position);
+                final int count = segments[segment].read(position - starts[segment], buffer, offset + result,
+                        length - result);
+                if (count <= 0) {
+                    break;
+                }
+                result += count;
+            }
+        } else if (length == 0) {
+            result = 0;
+        }
+        return result;
+    }
+
+    @Override
+    public CharSequence subSequence(long start, long finish) {
+        checkRange(start, finish, length);
+        CharSequence result;
+        if (start == finish) {
+            result = "";
+        } else {
+            final int segment = selectSegment(start);
+            if (finish <= getFinish(segment)) {
+                result = segments[segment].subSequence(start - starts[segment], finish - starts[segment]);
+            } else {
+                result = super.subSequence(start, finish);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Releases whole segments before position and part of the segment, which contains position.
+     *
+     * @param position position.
+     */
+    @Override
+    public void release(long position) {
+        while (released < segments.length && starts[released] < position) {
+            segments[released].release(position - starts[released]);
+            if (getFinish(released) > position) {
+                break;
+            }
+            released++;
+        }
+    }
+
+    /**
+     * Returns count of segments.
+     *
+     * @return count of segments.
+     */
+    int getSegmentCount() {
+        return segments.length;
+    }
+
+    private int selectSegment(long index) {
+        if (index < starts[current] || index >= getFinish(current)) {
+            if (current + 1 < segments.length && index >= starts[current + 1] && index < getFinish(current + 1)) {
+                current++;
+            } else {
+                final int position = Arrays.binarySearch(starts, index);
+                current = position >= 0 ? position : -position - 2;
+            }
+        }
+        return current;
+    }
+
+    private long getFinish(int segment) {
+        return segment + 1 < starts.length ? starts[segment + 1] : length;
+    }
+}
@@ -0,0 +1,45 @@
+package nextextz.text.pack.text;
+
+/**
+ * Text, which can be changed. Handlers are notified after every change.
+ */
+public interface EditableText extends Text {
+    /**
+     * Inserts symbols.
+     *
+     * @param index index, where symbols are inserted.
+     * @param value symbols (can not be null).
+     */
+    void insert(long index, CharSequence value);
+
+    /**
+     * Removes symbols in range [start, finish).
+     *
+     * @param start  start.
+     * @param finish finish.
+     */
+    void remove(long start, long finish);
+
+    /**
+     * Replaces symbols in range [start, finish) by value.
+     *
+     * @param start  start.
+     * @param finish finish.
+     * @param value  symbols (can not be null).
+     */
+    void replace(long start, long finish, CharSequence value);
+
+    /**
+     * Adds handler of changes.
+     *
+     * @param handler handler (can not be null).
+     */
+    void addChangeHandler(TextChangeHandler handler);
+
+    /**
+     * Removes handler of changes.
+     *
+     * @param handler handler.
+     */
+    void removeChangeHandler(TextChangeHandler handler);
+}
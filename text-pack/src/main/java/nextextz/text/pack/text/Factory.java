@@ -1,5 +1,21 @@
 package nextextz.text.pack.text;
 
+import com.google.common.base.Charsets;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Creates entities from 'Text'.
  */
@@ -17,6 +33,160 @@ public final class Factory {
         return new TextLight(value);
     }
 
+    /**
+     * Creates new text based on bytes. Bytes are not copied.
+     *
+     * @param value   value (can not be null).
+     * @param charset charset, where every symbol is one byte (for example, 'ISO-8859-1').
+     * @return text.
+     */
+    public static ByteText createText(byte[] value, Charset charset) {
+        return createText(ByteBuffer.wrap(value), charset);
+    }
+
+    /**
+     * Creates new text based on bytes from position to limit of buffer. Bytes are not copied, so buffer can be
+     * direct.
+     *
+     * @param value   value (can not be null).
+     * @param charset charset, where every symbol is one byte (for example, 'ISO-8859-1').
+     * @return text.
+     */
+    public static ByteText createText(ByteBuffer value, Charset charset) {
+        return new SingleByteText(new BufferBytes(value), charset);
+    }
+
+    /**
+     * Creates new text based on bytes in 'UTF-8'. Bytes are not copied, symbols are decoded, when they are read.
+     * Text is not thread safe.
+     *
+     * @param value value (can not be null).
+     * @return text.
+     */
+    public static Text createUtf8Text(byte[] value) {
+        return createUtf8Text(ByteBuffer.wrap(value));
+    }
+
+    /**
+     * Creates new text based on bytes in 'UTF-8' from position to limit of buffer. See 'createUtf8Text(byte[])'.
+     *
+     * @param value value (can not be null).
+     * @return text.
+     */
+    public static Text createUtf8Text(ByteBuffer value) {
+        return new Utf8Text(new BufferBytes(value));
+    }
+
+    /**
+     * Creates new text based on file. The file is mapped into memory by segments, so it can be larger than 2 GB.
+     * Text has to be closed. Text in single-byte charset can be read by several threads (for example, by
+     * 'HtmlParallelLexer'), text in 'UTF-8' is not thread safe.
+     *
+     * @param path    path (can not be null).
+     * @param charset charset, where every symbol is one byte (for example, 'ISO-8859-1'), or 'UTF-8'.
+     * @return text.
+     * @throws IOException if file can not be opened.
+     */
+    public static CloseableText createText(Path path, Charset charset) throws IOException {
+        return createText(path, charset, MappedBytes.DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Creates new text based on file, which is compressed by blocks in 'BGZF' format (gzip members, which contain
+     * their size; see 'BlockGzipOutputStream'). Only blocks, which are read, are decompressed, and only a few last
+     * decompressed blocks are held. Text has to be closed, it is not thread safe.
+     *
+     * @param path    path (can not be null).
+     * @param charset charset, where every symbol is one byte (for example, 'ISO-8859-1'), or 'UTF-8'.
+     * @return text.
+     * @throws IOException if file can not be opened or it is not in 'BGZF' format.
+     */
+    public static CloseableText createBlockGzipText(Path path, Charset charset) throws IOException {
+        checkCharset(charset);
+        return createText(new BlockGzipBytes(path), charset);
+    }
+
+    static CloseableText createText(Path path, Charset charset, int segmentShift) throws IOException {
+        checkCharset(charset);
+        return createText(new MappedBytes(path, segmentShift), charset);
+    }
+
+    private static CloseableText createText(CloseableBytes bytes, Charset charset) {
+        final CloseableText result;
+        if (Charsets.UTF_8.equals(charset)) {
+            result = new CloseableUtf8Text(bytes);
+        } else {
+            result = new CloseableSingleByteText(bytes, charset);
+        }
+        return result;
+    }
+
+    private static void checkCharset(Charset charset) {
+        checkNotNull(charset);
+        checkArgument(Charsets.UTF_8.equals(charset) || SingleByteCharsets.isSingleByte(charset),
+                "Charset %s is not supported", charset);
+    }
+
+    /**
+     * Creates new text, which consists of segments one after another. Segments are not copied, so lexers can read
+     * across boundaries of segments. Lengths of segments are taken once, so segments must not change.
+     *
+     * @param segments segments (can not be null).
+     * @return text.
+     */
+    public static Text createCompositeText(Text... segments) {
+        checkNotNull(segments);
+        return new CompositeText(Arrays.asList(segments));
+    }
+
+    /**
+     * Creates new text, which consists of char sequences. See 'createCompositeText(Text...)'.
+     *
+     * @param segments segments (can not be null).
+     * @return text.
+     */
+    public static Text createCompositeText(CharSequence... segments) {
+        checkNotNull(segments);
+        final List<Text> texts = new ArrayList<>(segments.length);
+        for (CharSequence segment : segments) {
+            texts.add(new CharSequenceText(segment));
+        }
+        return new CompositeText(texts);
+    }
+
+    /**
+     * Creates new editable text. Original symbols are held as string and never copied after that. Insert and
+     * remove take O(log n) of count of changes. Text is not thread safe.
+     *
+     * @param value original symbols (can not be null).
+     * @return text.
+     */
+    public static EditableText createEditableText(CharSequence value) {
+        return new PieceText(value);
+    }
+
+    /**
+     * Creates new text based on reader. Symbols are read, when they are needed, and symbols before position, which
+     * is passed to 'release', are dropped. Reader is not closed.
+     *
+     * @param reader reader (can not be null).
+     * @return text.
+     */
+    public static Text createText(Reader reader) {
+        return new StreamText(reader);
+    }
+
+    /**
+     * Creates new text based on stream. See 'createText(Reader)'.
+     *
+     * @param stream  stream (can not be null).
+     * @param charset charset (can not be null).
+     * @return text.
+     */
+    public static Text createText(InputStream stream, Charset charset) {
+        return new StreamText(new InputStreamReader(stream, charset));
+    }
+
     /**
      * Creates new symbol provider.
      *
@@ -26,4 +196,14 @@ public final class Factory {
     public static SymbolProvider createSymbolProvider(String value) {
         return new SymbolProviderLight(value);
     }
+
+    /**
+     * Creates new symbol provider based on reader. Reader is not closed.
+     *
+     * @param reader reader (can not be null).
+     * @return provider.
+     */
+    public static SymbolProvider createSymbolProvider(Reader reader) {
+        return new StreamSymbolProvider(reader);
+    }
 }
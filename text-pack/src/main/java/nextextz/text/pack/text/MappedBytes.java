@@ -0,0 +1,110 @@
+package nextextz.text.pack.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Contains bytes of file. The file is mapped by segments, segments are mapped, when they are touched, and they are
+ * found by index in table, so the file can be larger than 2 GB. Segments are only read by absolute methods and table
+ * is updated atomically, so bytes can be read by several threads.
+ */
+class MappedBytes implements CloseableBytes {
+    /**
+     * Default segment size is 64 MB.
+     */
+    static final int DEFAULT_SEGMENT_SHIFT = 26;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final AtomicReferenceArray<ByteBuffer> segments;
+
+    /**
+     * Opens file.
+     *
+     * @param path         path (can not be null).
+     * @param segmentShift size of segment as power of two.
+     * @throws IOException if file can not be opened.
+     */
+    MappedBytes(Path path, int segmentShift) throws IOException {
+        checkNotNull(path);
+        checkArgument(segmentShift > 0 && segmentShift < 31);
+
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+
+        final long segmentCount = (size + segmentMask) >>> segmentShift;
+        if (segmentCount > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IllegalArgumentException("Segment is too small for file");
+        }
+        this.segments = new AtomicReferenceArray<ByteBuffer>((int) segmentCount);
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public byte get(long index) {
+        return getSegment(index >>> segmentShift).get((int) (index & segmentMask));
+    }
+
+    @Override
+    public long indexOf(long index, byte first, byte second) {
+        long result = -1;
+        for (long i = Math.max(index, 0); i < size; ) {
+            final long segment = i >>> segmentShift;
+            final ByteBuffer buffer = getSegment(segment);
+            final int j = ByteScanner.indexOf(buffer, (int) (i & segmentMask), buffer.limit(), first, second);
+            if (j != -1) {
+                result = (segment << segmentShift) + j;
+                break;
+            }
+            i = (segment + 1) << segmentShift;
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (int i = 0; i < segments.length(); i++) {
+            segments.set(i, null);
+        }
+        channel.close();
+    }
+
+    /**
+     * Returns segment. If several threads map the same segment, only one buffer is kept, and others are unmapped by
+     * collector.
+     */
+    private ByteBuffer getSegment(long segment) {
+        ByteBuffer result = segments.get((int) segment);
+        if (result == null) {
+            final long start = segment << segmentShift;
+            final long length = Math.min(1L << segmentShift, size - start);
+            try {
+                result = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                result.order(ByteOrder.nativeOrder());
+            } catch (IOException e) {
+                throw new TextException("Segment " + segment + " can not be mapped", e);
+            }
+            if (!segments.compareAndSet((int) segment, null, result)) {
+                result = segments.get((int) segment);
+            }
+        }
+        return result;
+    }
+}
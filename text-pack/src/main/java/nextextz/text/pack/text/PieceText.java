@@ -0,0 +1,272 @@
+package nextextz.text.pack.text;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+/**
+ * Editable text based on piece table. Original symbols are never copied, inserted symbols are appended to one
+ * buffer, and text is a sequence of pieces of both. Pieces are held in implicit treap (keyed by position), so
+ * insert and remove take O(log n) of count of pieces. The last read piece is remembered, so sequential reading does
+ * not search. Text is not thread safe.
+ */
+class PieceText extends AbstractText implements EditableText {
+    private final String original;
+    private final StringBuilder added = new StringBuilder();
+    private final Random random = new Random();
+    private final List<TextChangeHandler> handlers = new CopyOnWriteArrayList<>();
+    private Piece root;
+    private Piece cachedPiece;
+    private long cachedStart;
+    private long cachedFinish;
+    private Piece splitLeft;
+    private Piece splitRight;
+
+    PieceText(CharSequence value) {
+        checkNotNull(value);
+        this.original = value.toString();
+        if (!original.isEmpty()) {
+            root = new Piece(original, 0, original.length(), random.nextInt());
+        }
+    }
+
+    @Override
+    public int read(long index) {
+        int result = END;
+        if (index >= cachedStart && index < cachedFinish) {
+            result = cachedPiece.source.charAt(cachedPiece.start + (int) (index - cachedStart));
+        } else if (index >= 0 && index < getLength()) {
+            selectPiece(index);
+            result = cachedPiece.source.charAt(cachedPiece.start + (int) (index - cachedStart));
+        }
+        return result;
+    }
+
+    @Override
+    public int read(long index, char[] buffer, int offset, int length) {
+        checkNotNull(buffer);
+        checkPositionIndexes(offset, offset + length, buffer.length);
+        int result = END;
+        if (index >= 0 && index < getLength()) {
+            result = 0;
+            while (result < length && index + result < getLength()) {
+                final long position = index + result;
+                if (position < cachedStart || position >= cachedFinish) {
+                    selectPiece(position);
+                }
+                final int count = (int) Math.min(length - result, cachedFinish - position);
+                final int start = cachedPiece.start + (int) (position - cachedStart);
+                getChars(cachedPiece.source, start, start + count, buffer, offset + result);
+                result += count;
+            }
+        } else if (length == 0) {
+            result = 0;
+        }
+        return result;
+    }
+
+    @Override
+    public long getLength() {
+        return size(root);
+    }
+
+    @Override
+    public void insert(long index, CharSequence value) {
+        replace(index, index, value);
+    }
+
+    @Override
+    public void remove(long start, long finish) {
+        replace(start, finish, "");
+    }
+
+    @Override
+    public void replace(long start, long finish, CharSequence value) {
+        checkNotNull(value);
+        final long length = getLength();
+        if (start < 0 || finish < start || finish > length) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + finish + ") is out of text");
+        }
+        if (start == finish && value.length() == 0) {
+            return;
+        }
+        resetCache();
+        split(root, start);
+        final Piece left = splitLeft;
+        split(splitRight, finish - start);
+        final Piece right = splitRight;
+        Piece middle = null;
+        if (value.length() > 0) {
+            final int addedStart = added.length();
+            added.append(value);
+            if (!extendLast(left, addedStart, value.length())) {
+                middle = new Piece(added, addedStart, value.length(), random.nextInt());
+            }
+        }
+        root = merge(merge(left, middle), right);
+        for (TextChangeHandler handler : handlers) {
+            handler.handle(start, finish - start, value.length());
+        }
+    }
+
+    @Override
+    public void addChangeHandler(TextChangeHandler handler) {
+        handlers.add(checkNotNull(handler));
+    }
+
+    @Override
+    public void removeChangeHandler(TextChangeHandler handler) {
+        handlers.remove(handler);
+    }
+
+    /**
+     * Returns count of pieces.
+     *
+     * @return count of pieces.
+     */
+    int getPieceCount() {
+        return count(root);
+    }
+
+    private void selectPiece(long index) {
+        Piece piece = root;
+        long start = 0;
+        for (; ; ) {
+            final long leftSize = size(piece.left);
+            if (index < start + leftSize) {
+                piece = piece.left;
+            } else if (index < start + leftSize + piece.length) {
+                start += leftSize;
+                break;
+            } else {
+                start += leftSize + piece.length;
+                piece = piece.right;
+            }
+        }
+        cachedPiece = piece;
+        cachedStart = start;
+        cachedFinish = start + piece.length;
+    }
+
+    private void resetCache() {
+        cachedPiece = null;
+        cachedStart = 0;
+        cachedFinish = 0;
+    }
+
+    /**
+     * Splits tree into pieces before position ('splitLeft') and pieces after position ('splitRight'). Piece, which
+     * contains position, is cut.
+     */
+    private void split(Piece piece, long position) {
+        if (piece == null) {
+            splitLeft = null;
+            splitRight = null;
+        } else {
+            final long leftSize = size(piece.left);
+            if (position <= leftSize) {
+                split(piece.left, position);
+                piece.left = splitRight;
+                update(piece);
+                splitRight = piece;
+            } else if (position >= leftSize + piece.length) {
+                split(piece.right, position - leftSize - piece.length);
+                piece.right = splitLeft;
+                update(piece);
+                splitLeft = piece;
+            } else {
+                final int offset = (int) (position - leftSize);
+                final Piece right = new Piece(piece.source, piece.start + offset, piece.length - offset,
+                        piece.priority);
+                right.right = piece.right;
+                update(right);
+                piece.length = offset;
+                piece.right = null;
+                update(piece);
+                splitLeft = piece;
+                splitRight = right;
+            }
+        }
+    }
+
+    /**
+     * Extends the last piece, if it ends, where added symbols start (symbols are typed one after another).
+     */
+    private boolean extendLast(Piece piece, int addedStart, int count) {
+        boolean result = false;
+        if (piece != null) {
+            if (piece.right != null) {
+                result = extendLast(piece.right, addedStart, count);
+            } else if (piece.source == added && piece.start + piece.length == addedStart) {
+                piece.length += count;
+                result = true;
+            }
+            if (result) {
+                piece.size += count;
+            }
+        }
+        return result;
+    }
+
+    private static Piece merge(Piece left, Piece right) {
+        Piece result;
+        if (left == null) {
+            result = right;
+        } else if (right == null) {
+            result = left;
+        } else if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            result = left;
+        } else {
+            right.left = merge(left, right.left);
+            update(right);
+            result = right;
+        }
+        return result;
+    }
+
+    private static void update(Piece piece) {
+        piece.size = size(piece.left) + piece.length + size(piece.right);
+    }
+
+    private static long size(Piece piece) {
+        return piece == null ? 0 : piece.size;
+    }
+
+    private static int count(Piece piece) {
+        return piece == null ? 0 : count(piece.left) + 1 + count(piece.right);
+    }
+
+    private static void getChars(CharSequence source, int start, int finish, char[] buffer, int offset) {
+        if (source instanceof String) {
+            ((String) source).getChars(start, finish, buffer, offset);
+        } else {
+            ((StringBuilder) source).getChars(start, finish, buffer, offset);
+        }
+    }
+
+    /**
+     * Part of original or added symbols.
+     */
+    private static final class Piece {
+        private final CharSequence source;
+        private final int start;
+        private final int priority;
+        private int length;
+        private long size;
+        private Piece left;
+        private Piece right;
+
+        private Piece(CharSequence source, int start, int length, int priority) {
+            this.source = source;
+            this.start = start;
+            this.length = length;
+            this.priority = priority;
+            this.size = length;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package nextextz.text.pack.text;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Contains functions for charsets, where every symbol is one byte.
+ */
+final class SingleByteCharsets {
+    private static final int SIZE = 256;
+
+    private SingleByteCharsets() {
+    }
+
+    /**
+     * Checks charset.
+     *
+     * @param charset charset (can not be null).
+     * @return true, if every symbol of charset is one byte.
+     */
+    static boolean isSingleByte(Charset charset) {
+        checkNotNull(charset);
+        return charset.canEncode() && charset.newEncoder().maxBytesPerChar() == 1.0f;
+    }
+
+    /**
+     * Creates table, which maps bytes to symbols.
+     *
+     * @param charset charset (can not be null, has to be single byte).
+     * @return table with 256 symbols.
+     */
+    static char[] createTable(Charset charset) {
+        checkArgument(isSingleByte(charset), "Charset %s is not single byte", charset);
+        final CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        final char[] result = new char[SIZE];
+        final ByteBuffer input = ByteBuffer.allocate(1);
+        for (int i = 0; i < SIZE; i++) {
+            input.clear();
+            input.put((byte) i);
+            input.flip();
+            try {
+                final CharBuffer output = decoder.decode(input);
+                result[i] = output.length() == 1 ? output.get(0) : decoder.replacement().charAt(0);
+            } catch (CharacterCodingException e) {
+                throw new IllegalArgumentException("Charset " + charset + " can not decode byte " + i, e);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,128 @@
+package nextextz.text.pack.text;
+
+import java.nio.charset.Charset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+/**
+ * Text over bytes for charsets, where every symbol is one byte. Text can be read by several threads, if bytes can.
+ */
+class SingleByteText extends AbstractText implements ByteText {
+    private static final int NONE = -1;
+    private static final int MANY = -2;
+
+    private final Bytes bytes;
+    private final Charset charset;
+    private final char[] table;
+    private final long length;
+
+    // Bytes of last found symbols. Fields of 'FoundBytes' are final, so it can be replaced by any thread.
+    private FoundBytes found;
+
+    public SingleByteText(Bytes bytes, Charset charset) {
+        checkNotNull(bytes);
+        this.table = SingleByteCharsets.createTable(charset);
+        this.bytes = bytes;
+        this.charset = charset;
+        this.length = bytes.size();
+    }
+
+    @Override
+    public int read(long index) {
+        int result = END;
+        if (index < length && index >= 0) {
+            result = table[bytes.get(index) & 0xFF];
+        }
+        return result;
+    }
+
+    @Override
+    public int read(long index, char[] buffer, int offset, int length) {
+        checkNotNull(buffer);
+        checkPositionIndexes(offset, offset + length, buffer.length);
+        int result = END;
+        if (index < this.length && index >= 0) {
+            result = (int) Math.min(length, this.length - index);
+            for (int i = 0; i < result; i++) {
+                buffer[offset + i] = table[bytes.get(index + i) & 0xFF];
+            }
+        } else if (length == 0) {
+            result = 0;
+        }
+        return result;
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public Charset getCharset() {
+        return charset;
+    }
+
+    @Override
+    public int readByte(long index) {
+        int result = END;
+        if (index < length && index >= 0) {
+            result = bytes.get(index) & 0xFF;
+        }
+        return result;
+    }
+
+    @Override
+    public long find(long index, char first, char second) {
+        FoundBytes found = this.found;
+        if (found == null || found.first != first || found.second != second) {
+            found = new FoundBytes(first, second, findByte(first), findByte(second));
+            this.found = found;
+        }
+        final int foundFirstByte = found.firstByte;
+        final int foundSecondByte = found.secondByte;
+        long result;
+        if (foundFirstByte == MANY || foundSecondByte == MANY) {
+            result = -1;
+            for (long i = Math.max(index, 0); i < length; i++) {
+                final char symbol = table[bytes.get(i) & 0xFF];
+                if (symbol == first || symbol == second) {
+                    result = i;
+                    break;
+                }
+            }
+        } else if (foundFirstByte == NONE && foundSecondByte == NONE) {
+            result = -1;
+        } else {
+            // Absent symbol is replaced by the other one, so only one byte is searched.
+            final byte firstByte = (byte) (foundFirstByte == NONE ? foundSecondByte : foundFirstByte);
+            final byte secondByte = (byte) (foundSecondByte == NONE ? foundFirstByte : foundSecondByte);
+            result = bytes.indexOf(index, firstByte, secondByte);
+        }
+        return result;
+    }
+
+    private int findByte(char symbol) {
+        int result = NONE;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] == symbol) {
+                result = result == NONE ? i : MANY;
+            }
+        }
+        return result;
+    }
+
+    private static final class FoundBytes {
+        private final char first;
+        private final char second;
+        private final int firstByte;
+        private final int secondByte;
+
+        private FoundBytes(char first, char second, int firstByte, int secondByte) {
+            this.first = first;
+            this.second = second;
+            this.firstByte = firstByte;
+            this.secondByte = secondByte;
+        }
+    }
+}
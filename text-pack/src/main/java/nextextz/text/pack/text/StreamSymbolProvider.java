@@ -0,0 +1,140 @@
+package nextextz.text.pack.text;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Symbol provider, which reads symbols from reader. Only window of symbols is held: symbols from current position
+ * (or from mark, if it is set) up to the last peeked symbol.
+ */
+class StreamSymbolProvider implements SymbolProvider {
+    private final Reader reader;
+    private char[] window;
+
+    private long windowStart;
+    private int count;
+    private boolean isFinished;
+
+    private long position;
+    private long markPosition = -1;
+
+    public StreamSymbolProvider(Reader reader) {
+        this(reader, StreamText.DEFAULT_CAPACITY);
+    }
+
+    StreamSymbolProvider(Reader reader, int capacity) {
+        checkNotNull(reader);
+        checkArgument(capacity > 0);
+
+        this.reader = reader;
+        this.window = new char[capacity];
+    }
+
+    @Override
+    public Character getSymbol() {
+        Character result = null;
+        if (hasMore()) {
+            result = window[(int) (position - windowStart)];
+        }
+        return result;
+    }
+
+    @Override
+    public int read() {
+        int result = END;
+        if (hasMore()) {
+            result = window[(int) (position - windowStart)];
+        }
+        return result;
+    }
+
+    @Override
+    public boolean hasMore() {
+        return isAvailable(position);
+    }
+
+    @Override
+    public void move() {
+        position++;
+    }
+
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public int peek(int offset) {
+        checkArgument(offset >= 0);
+        int result = END;
+        final long index = position + offset;
+        if (isAvailable(index)) {
+            result = window[(int) (index - windowStart)];
+        }
+        return result;
+    }
+
+    @Override
+    public void skip(long count) {
+        checkArgument(count >= 0);
+        position += count;
+    }
+
+    @Override
+    public void mark() {
+        markPosition = position;
+    }
+
+    @Override
+    public void reset() {
+        if (markPosition < 0) {
+            throw new IllegalStateException("There is no mark");
+        }
+        position = markPosition;
+    }
+
+    /**
+     * Returns capacity of window.
+     *
+     * @return capacity.
+     */
+    int getCapacity() {
+        return window.length;
+    }
+
+    private boolean isAvailable(long index) {
+        while (index >= windowStart + count && !isFinished) {
+            fill();
+        }
+        return index < windowStart + count;
+    }
+
+    private void fill() {
+        final long keptPosition = markPosition >= 0 ? Math.min(markPosition, position) : position;
+        final int released = (int) Math.max(0, Math.min(keptPosition - windowStart, count));
+        if (released > 0) {
+            System.arraycopy(window, released, window, 0, count - released);
+            windowStart += released;
+            count -= released;
+        }
+        if (count == window.length) {
+            final char[] newWindow = new char[window.length * 2];
+            System.arraycopy(window, 0, newWindow, 0, count);
+            window = newWindow;
+        }
+        final int size;
+        try {
+            size = reader.read(window, count, window.length - count);
+        } catch (IOException e) {
+            throw new TextException("Symbols can not be read", e);
+        }
+        if (size < 0) {
+            isFinished = true;
+        } else {
+            count += size;
+        }
+    }
+}
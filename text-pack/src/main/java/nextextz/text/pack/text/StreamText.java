@@ -0,0 +1,141 @@
+package nextextz.text.pack.text;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+/**
+ * Text, which reads symbols from reader. Only window of symbols is held: symbols are read, when they are needed,
+ * and symbols before released position are dropped, so memory depends on distance between released position and
+ * the last read symbol, not on size of text.
+ */
+class StreamText extends AbstractText {
+    static final int DEFAULT_CAPACITY = 4096;
+
+    private final Reader reader;
+
+    private char[] window;
+    private long windowStart;
+    private int count;
+    private long releasedPosition;
+    private boolean isFinished;
+
+    public StreamText(Reader reader) {
+        this(reader, DEFAULT_CAPACITY);
+    }
+
+    StreamText(Reader reader, int capacity) {
+        checkNotNull(reader);
+        checkArgument(capacity > 0);
+
+        this.reader = reader;
+        this.window = new char[capacity];
+    }
+
+    @Override
+    public int read(long index) {
+        int result = END;
+        if (index >= 0 && isAvailable(index)) {
+            result = window[(int) (index - windowStart)];
+        }
+        return result;
+    }
+
+    @Override
+    public int read(long index, char[] buffer, int offset, int length) {
+        checkNotNull(buffer);
+        checkPositionIndexes(offset, offset + length, buffer.length);
+        int result = END;
+        if (index >= 0 && isAvailable(index)) {
+            final int start = (int) (index - windowStart);
+            result = Math.min(length, count - start);
+            System.arraycopy(window, start, buffer, offset, result);
+        } else if (length == 0) {
+            result = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Returns copy of symbols. Symbols are read only up to finish, not to the end of text.
+     *
+     * @param start  start (can not be released).
+     * @param finish finish.
+     * @return symbols.
+     */
+    @Override
+    public CharSequence subSequence(long start, long finish) {
+        checkRange(start, finish, Long.MAX_VALUE);
+        if (start < releasedPosition) {
+            throw new IllegalStateException("Symbol " + start + " is released");
+        }
+        while (finish > windowStart + count && !isFinished) {
+            fill();
+        }
+        checkRange(start, finish, windowStart + count);
+        return new String(window, (int) (start - windowStart), (int) (finish - start));
+    }
+
+    @Override
+    public long getLength() {
+        while (!isFinished) {
+            fill();
+        }
+        return windowStart + count;
+    }
+
+    @Override
+    public void release(long position) {
+        if (position > releasedPosition) {
+            releasedPosition = position;
+        }
+    }
+
+    /**
+     * Returns capacity of window.
+     *
+     * @return capacity.
+     */
+    int getCapacity() {
+        return window.length;
+    }
+
+    private boolean isAvailable(long index) {
+        if (index < releasedPosition) {
+            throw new IllegalStateException("Symbol " + index + " is released");
+        }
+        while (index >= windowStart + count && !isFinished) {
+            fill();
+        }
+        return index < windowStart + count;
+    }
+
+    private void fill() {
+        if (count == window.length) {
+            final int released = (int) Math.min(releasedPosition - windowStart, count);
+            if (released > 0) {
+                System.arraycopy(window, released, window, 0, count - released);
+                windowStart += released;
+                count -= released;
+            } else {
+                final char[] newWindow = new char[window.length * 2];
+                System.arraycopy(window, 0, newWindow, 0, count);
+                window = newWindow;
+            }
+        }
+        final int size;
+        try {
+            size = reader.read(window, count, window.length - count);
+        } catch (IOException e) {
+            throw new TextException("Symbols can not be read", e);
+        }
+        if (size < 0) {
+            isFinished = true;
+        } else {
+            count += size;
+        }
+    }
+}
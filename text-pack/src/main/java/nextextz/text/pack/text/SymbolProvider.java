@@ -4,6 +4,11 @@ package nextextz.text.pack.text;
  * Calculates symbols.
  */
 public interface SymbolProvider {
+    /**
+     * Returned by 'read', when there is no symbol.
+     */
+    int END = -1;
+
     /**
      * Returns current symbol.
      *
@@ -11,6 +16,20 @@ public interface SymbolProvider {
      */
     Character getSymbol();
 
+    /**
+     * Returns current symbol without boxing.
+     *
+     * @return current symbol or 'END', if there is no symbol.
+     */
+    int read();
+
+    /**
+     * Checks current symbol.
+     *
+     * @return true, if current symbol exists.
+     */
+    boolean hasMore();
+
     /**
      * Moves.
      */
@@ -22,4 +41,31 @@ public interface SymbolProvider {
      * @return position.
      */
     long getPosition();
+
+    /**
+     * Returns symbol after current symbol without moving.
+     *
+     * @param offset offset from current position (0 is current symbol).
+     * @return symbol or 'END', if there is no symbol.
+     */
+    int peek(int offset);
+
+    /**
+     * Moves by count of symbols.
+     *
+     * @param count count of symbols.
+     */
+    void skip(long count);
+
+    /**
+     * Remembers current position. Symbols after mark are held, until new mark is set ('reset' keeps mark).
+     */
+    void mark();
+
+    /**
+     * Returns to position, which was remembered by 'mark'. Mark is kept.
+     *
+     * @throws IllegalStateException if there is no mark.
+     */
+    void reset();
 }
@@ -1,10 +1,12 @@
 package nextextz.text.pack.text;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 class SymbolProviderLight implements SymbolProvider {
     private final String value;
     private long position;
+    private long markPosition = -1;
 
     public SymbolProviderLight(String value) {
         checkNotNull(value);
@@ -14,12 +16,26 @@ class SymbolProviderLight implements SymbolProvider {
     @Override
     public Character getSymbol() {
         Character result = null;
-        if (position < value.length()) {
+        if (hasMore()) {
             result = value.charAt((int) position);
         }
         return result;
     }
 
+    @Override
+    public int read() {
+        int result = END;
+        if (hasMore()) {
+            result = value.charAt((int) position);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean hasMore() {
+        return position < value.length();
+    }
+
     @Override
     public void move() {
         position++;
@@ -29,4 +45,34 @@ class SymbolProviderLight implements SymbolProvider {
     public long getPosition() {
         return position;
     }
+
+    @Override
+    public int peek(int offset) {
+        checkArgument(offset >= 0);
+        int result = END;
+        final long index = position + offset;
+        if (index < value.length()) {
+            result = value.charAt((int) index);
+        }
+        return result;
+    }
+
+    @Override
+    public void skip(long count) {
+        checkArgument(count >= 0);
+        position += count;
+    }
+
+    @Override
+    public void mark() {
+        markPosition = position;
+    }
+
+    @Override
+    public void reset() {
+        if (markPosition < 0) {
+            throw new IllegalStateException("There is no mark");
+        }
+        position = markPosition;
+    }
 }
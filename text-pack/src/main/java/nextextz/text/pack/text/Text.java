@@ -1,5 +1,72 @@
 package nextextz.text.pack.text;
 
+import java.nio.CharBuffer;
+
+/**
+ * Contains symbols.
+ */
 public interface Text {
+    /**
+     * Returned by 'read', when there is no symbol.
+     */
+    int END = -1;
+
+    /**
+     * Returns symbol.
+     *
+     * @param index index.
+     * @return symbol or null, if there is no symbol.
+     */
     Character getSymbol(long index);
+
+    /**
+     * Returns symbol without boxing.
+     *
+     * @param index index.
+     * @return symbol or 'END', if there is no symbol.
+     */
+    int read(long index);
+
+    /**
+     * Reads symbols into buffer.
+     *
+     * @param index  index of first symbol.
+     * @param buffer buffer (can not be null).
+     * @param offset offset in buffer.
+     * @param length max count of symbols.
+     * @return count of read symbols or 'END', if there is no symbol.
+     */
+    int read(long index, char[] buffer, int offset, int length);
+
+    /**
+     * Reads symbols into buffer, while buffer has space.
+     *
+     * @param index  index of first symbol.
+     * @param buffer buffer (can not be null).
+     * @return count of read symbols or 'END', if there is no symbol.
+     */
+    int read(long index, CharBuffer buffer);
+
+    /**
+     * Returns part of text without copying. Part reflects text, so it is valid while text is valid.
+     *
+     * @param start  start (inclusive).
+     * @param finish finish (exclusive).
+     * @return part of text.
+     */
+    CharSequence subSequence(long start, long finish);
+
+    /**
+     * Returns length.
+     *
+     * @return length.
+     */
+    long getLength();
+
+    /**
+     * Declares, that symbols before position will not be read anymore, so text can free them.
+     *
+     * @param position position.
+     */
+    void release(long position);
 }
@@ -0,0 +1,17 @@
+package nextextz.text.pack.text;
+
+/**
+ * Handles changes of 'EditableText'.
+ */
+public interface TextChangeHandler {
+
+    /**
+     * Handles change. Symbols in range [offset, offset + removed) were replaced by symbols in range
+     * [offset, offset + inserted).
+     *
+     * @param offset   offset of change.
+     * @param removed  count of removed symbols.
+     * @param inserted count of inserted symbols.
+     */
+    void handle(long offset, long removed, long inserted);
+}
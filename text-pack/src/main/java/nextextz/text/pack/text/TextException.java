@@ -0,0 +1,27 @@
+package nextextz.text.pack.text;
+
+/**
+ * Thrown, when text can not be read.
+ */
+public class TextException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates new exception.
+     *
+     * @param message message.
+     */
+    public TextException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates new exception.
+     *
+     * @param message message.
+     * @param cause   cause.
+     */
+    public TextException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
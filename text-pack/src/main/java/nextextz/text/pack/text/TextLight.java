@@ -1,8 +1,11 @@
 package nextextz.text.pack.text;
 
+import java.nio.CharBuffer;
+
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 
-class TextLight implements Text {
+class TextLight extends AbstractText {
     private final String value;
 
     public TextLight(String value) {
@@ -11,11 +14,49 @@ class TextLight implements Text {
     }
 
     @Override
-    public Character getSymbol(long index) {
-        Character result = null;
+    public int read(long index) {
+        int result = END;
         if (index < value.length() && index >= 0) {
             result = value.charAt((int) index);
         }
         return result;
     }
+
+    @Override
+    public int read(long index, char[] buffer, int offset, int length) {
+        checkNotNull(buffer);
+        checkPositionIndexes(offset, offset + length, buffer.length);
+        int result = END;
+        if (index < value.length() && index >= 0) {
+            result = (int) Math.min(length, value.length() - index);
+            value.getChars((int) index, (int) index + result, buffer, offset);
+        } else if (length == 0) {
+            result = 0;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(long index, CharBuffer buffer) {
+        checkNotNull(buffer);
+        int result = END;
+        if (index < value.length() && index >= 0) {
+            result = (int) Math.min(buffer.remaining(), value.length() - index);
+            buffer.put(value, (int) index, (int) index + result);
+        } else if (!buffer.hasRemaining()) {
+            result = 0;
+        }
+        return result;
+    }
+
+    @Override
+    public CharSequence subSequence(long start, long finish) {
+        checkRange(start, finish, value.length());
+        return CharBuffer.wrap(value, (int) start, (int) finish);
+    }
+
+    @Override
+    public long getLength() {
+        return value.length();
+    }
 }
@@ -0,0 +1,46 @@
+package nextextz.text.pack.text;
+
+/**
+ * Part of text, which does not copy symbols.
+ */
+class TextSequence implements CharSequence {
+    private final Text text;
+    private final long start;
+    private final int length;
+
+    TextSequence(Text text, long start, int length) {
+        this.text = text;
+        this.start = start;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of sequence");
+        }
+        return (char) text.read(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end < start || end > length) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") is out of sequence");
+        }
+        return new TextSequence(text, this.start + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        final char[] buffer = new char[length];
+        if (length > 0) {
+            text.read(start, buffer, 0, length);
+        }
+        return new String(buffer);
+    }
+}
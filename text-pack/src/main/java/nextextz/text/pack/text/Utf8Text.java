@@ -0,0 +1,251 @@
+package nextextz.text.pack.text;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+/**
+ * Text over bytes in 'UTF-8', which are decoded, when they are read. Position of the last read symbol is held, so
+ * sequential reading does not search anything. Positions of every 'interval' symbol are held in sorted index, so
+ * random reading starts from the nearest known position. Malformed bytes are read as 'U+FFFD', one per byte.
+ * Text is not thread safe.
+ */
+class Utf8Text extends AbstractText {
+    static final int DEFAULT_INTERVAL = 1024;
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private final Bytes bytes;
+    private final long size;
+    private final int interval;
+
+    private long[] checkpointSymbols = new long[16];
+    private long[] checkpointBytes = new long[16];
+    private int checkpointCount;
+
+    private long cursorSymbol;
+    private long cursorByte;
+
+    private long length = -1;
+
+    private int decodedLength;
+
+    public Utf8Text(Bytes bytes) {
+        this(bytes, DEFAULT_INTERVAL);
+    }
+
+    Utf8Text(Bytes bytes, int interval) {
+        checkNotNull(bytes);
+        checkArgument(interval > 0);
+
+        this.bytes = bytes;
+        this.size = bytes.size();
+        this.interval = interval;
+
+        checkpointCount = 1;
+    }
+
+    @Override
+    public int read(long index) {
+        int result = END;
+        if (index >= 0 && moveCursor(index)) {
+            final int codePoint = decode(cursorByte);
+            if (index == cursorSymbol) {
+                result = Character.isSupplementaryCodePoint(codePoint) ?
+                        Character.highSurrogate(codePoint) : codePoint;
+            } else {
+                result = Character.lowSurrogate(codePoint);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int read(long index, char[] buffer, int offset, int length) {
+        checkNotNull(buffer);
+        checkPositionIndexes(offset, offset + length, buffer.length);
+        int count = 0;
+        if (index >= 0 && length > 0 && moveCursor(index)) {
+            if (index != cursorSymbol) {
+                buffer[offset] = Character.lowSurrogate(decode(cursorByte));
+                moveCursorForward();
+                count++;
+            }
+            while (count < length && cursorByte < size) {
+                final byte value = bytes.get(cursorByte);
+                if (value >= 0) {
+                    buffer[offset + count] = (char) value;
+                    cursorByte++;
+                    cursorSymbol++;
+                    count++;
+                } else {
+                    final int codePoint = decode(cursorByte);
+                    if (Character.isSupplementaryCodePoint(codePoint)) {
+                        buffer[offset + count] = Character.highSurrogate(codePoint);
+                        count++;
+                        if (count == length) {
+                            break;
+                        }
+                        buffer[offset + count] = Character.lowSurrogate(codePoint);
+                    } else {
+                        buffer[offset + count] = (char) codePoint;
+                    }
+                    count++;
+                    moveCursorForward();
+                }
+            }
+        }
+        return count == 0 && length > 0 ? END : count;
+    }
+
+    /**
+     * Returns view of symbols. Text is decoded only up to finish from the nearest checkpoint, and cursor is kept.
+     *
+     * @param start  start.
+     * @param finish finish.
+     * @return view of symbols.
+     */
+    @Override
+    public CharSequence subSequence(long start, long finish) {
+        checkRange(start, finish, Long.MAX_VALUE);
+        if (length == -1 && finish > 0) {
+            final long symbol = cursorSymbol;
+            final long position = cursorByte;
+            final boolean exists = moveCursor(finish - 1);
+            cursorSymbol = symbol;
+            cursorByte = position;
+            if (!exists) {
+                throw new IndexOutOfBoundsException("Range [" + start + ", " + finish + ") is out of text");
+            }
+        } else {
+            checkRange(start, finish, getLength());
+        }
+        return new TextSequence(this, start, (int) (finish - start));
+    }
+
+    /**
+     * Returns length. Text is decoded to the end, when it is called first time.
+     *
+     * @return length.
+     */
+    @Override
+    public long getLength() {
+        if (length == -1) {
+            moveCursor(Long.MAX_VALUE);
+            length = cursorSymbol;
+        }
+        return length;
+    }
+
+    /**
+     * Moves cursor to symbol. Cursor jumps to the nearest checkpoint, if symbol is before cursor or at least one
+     * interval after it, so only symbols after the last checkpoint are decoded one by one.
+     *
+     * @param index index of symbol.
+     * @return true, if symbol exists. Cursor is at symbol or at high surrogate before it.
+     */
+    private boolean moveCursor(long index) {
+        if (index < cursorSymbol || index - cursorSymbol >= interval) {
+            int i = Arrays.binarySearch(checkpointSymbols, 0, checkpointCount, index);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            if (index < cursorSymbol || checkpointSymbols[i] > cursorSymbol) {
+                cursorSymbol = checkpointSymbols[i];
+                cursorByte = checkpointBytes[i];
+            }
+        }
+        boolean result = false;
+        while (cursorByte < size) {
+            if (index == cursorSymbol) {
+                result = true;
+                break;
+            }
+            final byte value = bytes.get(cursorByte);
+            if (value >= 0) {
+                cursorByte++;
+                cursorSymbol++;
+            } else {
+                final int codePoint = decode(cursorByte);
+                if (Character.isSupplementaryCodePoint(codePoint)) {
+                    if (index == cursorSymbol + 1) {
+                        result = true;
+                        break;
+                    }
+                    cursorSymbol++;
+                }
+                cursorByte += decodedLength;
+                cursorSymbol++;
+            }
+            addCheckpoint();
+        }
+        return result;
+    }
+
+    private void moveCursorForward() {
+        final int codePoint = decode(cursorByte);
+        cursorSymbol += Character.charCount(codePoint);
+        cursorByte += decodedLength;
+        addCheckpoint();
+    }
+
+    private void addCheckpoint() {
+        if (cursorSymbol - checkpointSymbols[checkpointCount - 1] >= interval) {
+            if (checkpointCount == checkpointSymbols.length) {
+                checkpointSymbols = Arrays.copyOf(checkpointSymbols, checkpointCount * 2);
+                checkpointBytes = Arrays.copyOf(checkpointBytes, checkpointCount * 2);
+            }
+            checkpointSymbols[checkpointCount] = cursorSymbol;
+            checkpointBytes[checkpointCount] = cursorByte;
+            checkpointCount++;
+        }
+    }
+
+    /**
+     * Decodes code point and stores its size in 'decodedLength'.
+     *
+     * @param index index of first byte (has to be less than size).
+     * @return code point.
+     */
+    private int decode(long index) {
+        final int first = bytes.get(index) & 0xFF;
+        int result = REPLACEMENT;
+        decodedLength = 1;
+        if (first < 0x80) {
+            result = first;
+        } else if (first >= 0xC2 && first < 0xE0) {
+            if (isContinuation(index + 1)) {
+                result = ((first & 0x1F) << 6) | (bytes.get(index + 1) & 0x3F);
+                decodedLength = 2;
+            }
+        } else if (first >= 0xE0 && first < 0xF0) {
+            if (isContinuation(index + 1) && isContinuation(index + 2)) {
+                final int codePoint = ((first & 0x0F) << 12)
+                        | ((bytes.get(index + 1) & 0x3F) << 6)
+                        | (bytes.get(index + 2) & 0x3F);
+                if (codePoint >= 0x800 && !Character.isSurrogate((char) codePoint)) {
+                    result = codePoint;
+                    decodedLength = 3;
+                }
+            }
+        } else if (first >= 0xF0 && first < 0xF5) {
+            if (isContinuation(index + 1) && isContinuation(index + 2) && isContinuation(index + 3)) {
+                final int codePoint = ((first & 0x07) << 18)
+                        | ((bytes.get(index + 1) & 0x3F) << 12)
+                        | ((bytes.get(index + 2) & 0x3F) << 6)
+                        | (bytes.get(index + 3) & 0x3F);
+                if (codePoint >= 0x10000 && codePoint <= Character.MAX_CODE_POINT) {
+                    result = codePoint;
+                    decodedLength = 4;
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean isContinuation(long index) {
+        return index < size && (bytes.get(index) & 0xC0) == 0x80;
+    }
+}
@@ -0,0 +1,48 @@
+package nextextz.text.pack.lexer;
+
+import nextextz.text.pack.text.Text;
+import org.junit.Test;
+
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class FixSizeSymbolBufferTest {
+    @Test
+    public void test_with_end() {
+        final FixSizeSymbolBuffer buffer = new FixSizeSymbolBuffer(2);
+        buffer.add(' ');
+        buffer.add(Text.END);
+        assertFalse(buffer.match(new char[]{' ', ' '}));
+    }
+
+    @Test
+    public void test_nulls() {
+        final FixSizeSymbolBuffer buffer = new FixSizeSymbolBuffer(2);
+        buffer.add(' ');
+        assertFalse(buffer.match(null));
+    }
+
+    @Test
+    public void test_different_sizes() {
+        final FixSizeSymbolBuffer buffer = new FixSizeSymbolBuffer(2);
+        buffer.add(' ');
+        assertFalse(buffer.match(new char[]{' ', '3'}));
+    }
+
+    @Test
+    public void test_shift() {
+        final FixSizeSymbolBuffer buffer = new FixSizeSymbolBuffer(2);
+        buffer.add('1');
+        buffer.add('2');
+        buffer.add('3');
+        assertTrue(buffer.match(new char[]{'2', '3'}));
+    }
+
+    @Test
+    public void test_different_reset() {
+        final FixSizeSymbolBuffer buffer = new FixSizeSymbolBuffer(2);
+        buffer.add(' ');
+        buffer.reset();
+        assertFalse(buffer.match(new char[]{' '}));
+    }
+}
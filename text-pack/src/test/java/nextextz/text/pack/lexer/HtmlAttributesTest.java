@@ -0,0 +1,104 @@
+package nextextz.text.pack.lexer;
+
+import com.google.common.collect.Lists;
+import nextextz.text.pack.text.Factory;
+import nextextz.text.pack.text.Text;
+import org.junit.Test;
+
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class HtmlAttributesTest {
+    @Test
+    public void test_quotes() {
+        assertEquals(Lists.newArrayList("href=x y", "title=a 'b'", "id=c"),
+                parse("<a href='x y' title=\"a 'b'\" id=c>"));
+        assertEquals(Lists.newArrayList("a=", "b="), parse("<p a='' b=\"\">"));
+        assertEquals(Lists.newArrayList("a=x>"), parse("<p a='x>"));
+    }
+
+    @Test
+    public void test_without_values() {
+        assertEquals(Lists.newArrayList("checked", "disabled", "value=1"),
+                parse("<input checked disabled value=1>"));
+        assertEquals(Lists.newArrayList("a=b"), parse("<p a = b >"));
+        assertEquals(Lists.newArrayList("src=x", "alt"), parse("<img src=x alt/>"));
+        assertEquals(Lists.newArrayList("src=x/"), parse("<img src=x/>"));
+    }
+
+    @Test
+    public void test_no_attributes() {
+        assertEquals(Lists.<String>newArrayList(), parse("<p>"));
+        assertEquals(Lists.<String>newArrayList(), parse("</p >"));
+        assertEquals(Lists.<String>newArrayList(), parse("<br/>"));
+        assertEquals(Lists.<String>newArrayList(), parse("<"));
+        assertEquals(Lists.<String>newArrayList(), parse(">"));
+        assertEquals(Lists.<String>newArrayList(), parse("<p <"));
+        assertEquals(Lists.newArrayList("a=x"), parse("<p a=x<"));
+    }
+
+    @Test
+    public void test_offsets() {
+        final String value = "text<a HREF='x'>";
+        final HtmlAttributes attributes = new HtmlAttributes(Factory.createText(value), 4, value.length());
+        assertTrue(attributes.next());
+        assertEquals(7, attributes.getNameStart());
+        assertEquals(11, attributes.getNameFinish());
+        assertEquals(13, attributes.getValueStart());
+        assertEquals(14, attributes.getValueFinish());
+        assertTrue(attributes.isName("href"));
+        assertTrue(attributes.isName("HREF"));
+        assertFalse(attributes.isName("hre"));
+        assertFalse(attributes.isName("hrefs"));
+        assertFalse(attributes.next());
+        attributes.reset();
+        assertTrue(attributes.next());
+        assertEquals("HREF", attributes.getName());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_no_attribute() {
+        final HtmlAttributes attributes = new HtmlAttributes(Factory.createText("<p>"), 0, 3);
+        attributes.next();
+        attributes.getName();
+    }
+
+    @Test
+    public void test_tokens() {
+        final String value = "<a href=x>text</a><img src='y'>";
+        final List<String> cursorAttributes = Lists.newArrayList();
+        final List<String> tokenAttributes = Lists.newArrayList();
+        final HtmlLexer lexer = new HtmlLexer(Factory.createText(value), new HtmlLexer.Options().setCursorHandler(
+                new HtmlLexerCursorHandler() {
+                    @Override
+                    public void handle(HtmlLexer.Cursor cursor) {
+                        cursorAttributes.addAll(collect(cursor.getAttributes()));
+                        tokenAttributes.addAll(collect(cursor.toToken().getAttributes()));
+                    }
+                }));
+        for (int i = 0; i < 5; i++) {
+            lexer.execute();
+        }
+        assertEquals(Lists.newArrayList("href=x", "src=y"), cursorAttributes);
+        assertEquals(cursorAttributes, tokenAttributes);
+        assertEquals(Lists.newArrayList("a=b"),
+                collect(HtmlLexer.Token.createTag("<p a=b>").getAttributes()));
+    }
+
+    private static List<String> parse(String value) {
+        final Text text = Factory.createText(value);
+        return collect(new HtmlAttributes(text, 0, value.length()));
+    }
+
+    private static List<String> collect(HtmlAttributes attributes) {
+        final List<String> result = Lists.newArrayList();
+        while (attributes.next()) {
+            result.add(attributes.hasValue() ? attributes.getName() + "=" + attributes.getValue()
+                    : attributes.getName());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package nextextz.text.pack.lexer;
+
+import nextextz.text.pack.text.Factory;
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+public class HtmlEntitiesTest {
+    @Test(expected = NullPointerException.class)
+    public void test_null() {
+        HtmlEntities.decode(null);
+    }
+
+    @Test
+    public void test_without_references() {
+        final String value = "text without references";
+        assertTrue(value == HtmlEntities.decode(value));
+        assertEquals("", HtmlEntities.decode(""));
+    }
+
+    @Test
+    public void test_names() {
+        assertEquals("a & b < c > \"d\" 'e'",
+                HtmlEntities.decode("a &amp; b &lt; c &gt; &quot;d&quot; &apos;e&apos;"));
+        assertEquals("\u00a9 \u20ac \u2260 \u03a9\u03c9", HtmlEntities.decode("&copy; &euro; &ne; &Omega;&omega;"));
+        assertEquals("\u2209 \u00acx", HtmlEntities.decode("&notin; &notx"));
+        assertEquals("a=1&b=2", HtmlEntities.decode("a=1&amp;b=2"));
+        assertEquals("a=1&b=2", HtmlEntities.decode("a=1&ampb=2"));
+    }
+
+    @Test
+    public void test_html5_names() {
+        assertEquals("\u2605 \u2192 \ud835\udd04 \u2242\u0338",
+                HtmlEntities.decode("&bigstar; &rightarrow; &Afr; &NotEqualTilde;"));
+        assertEquals("&bigstar &NotEqualTilde", HtmlEntities.decode("&bigstar &NotEqualTilde"));
+        assertEquals("&AMP < \u00a9", HtmlEntities.decode("&AMP;AMP &LT &COPY"));
+    }
+
+    @Test
+    public void test_legacy_names() {
+        assertEquals("<\u00a9 \u00e9t\u00e9", HtmlEntities.decode("&lt&copy &eacutet&eacute;"));
+        assertEquals("&apos &aposs &Omega", HtmlEntities.decode("&apos &aposs &Omega"));
+    }
+
+    @Test
+    public void test_not_references() {
+        assertEquals("& &; &unknown; &euro &OMEGA; &", HtmlEntities.decode("& &; &unknown; &euro &OMEGA; &"));
+        assertEquals("&# &#; &#x; &#xg", HtmlEntities.decode("&# &#; &#x; &#xg"));
+    }
+
+    @Test
+    public void test_numbers() {
+        assertEquals("' ' ' A", HtmlEntities.decode("&#39; &#x27; &#X27 &#65"));
+        assertEquals("\ud83d\ude00", HtmlEntities.decode("&#x1F600;"));
+        assertEquals("\ufffd \ufffd \ufffd", HtmlEntities.decode("&#0; &#xD800; &#99999999999;"));
+        assertEquals("\u2013 \u20ac \u0178 \u0081", HtmlEntities.decode("&#150; &#x80; &#159; &#x81;"));
+    }
+
+    @Test
+    public void test_tokens() {
+        final HtmlLexer lexer = new HtmlLexer(Factory.createText("<a title='&lt;'>&lt;x&gt; &amp;</a>"));
+        final HtmlLexer.Token tag = lexer.next();
+        assertEquals("<a title='&lt;'>", tag.getDecodedValue());
+        final HtmlAttributes attributes = tag.getAttributes();
+        assertTrue(attributes.next());
+        assertEquals("<", attributes.getDecodedValue());
+        assertEquals("<x> &", lexer.next().getDecodedValue());
+        assertEquals("x&y", HtmlLexer.Token.createContent("x&amp;y").getDecodedValue());
+    }
+}
@@ -0,0 +1,133 @@
+package nextextz.text.pack.lexer;
+
+import com.google.common.collect.Lists;
+import nextextz.text.pack.text.EditableText;
+import nextextz.text.pack.text.Factory;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+
+public class HtmlIncrementalLexerTest {
+    private static final String[] PIECES = {
+            "<", ">", " ", "  ", "-", "--", "!", "/", "script", "style", "p", "a", "'", "\"", "\\", "*", "/*",
+            "*/", "//", "\n", "<!--", "-->", "</", "</script>", "</style>", "<script>", "<style>", "x", "text",
+            "=", "< /", "<a href='x'>"
+    };
+
+    @Test(expected = NullPointerException.class)
+    public void test_null() {
+        new HtmlIncrementalLexer(null, null);
+    }
+
+    @Test
+    public void test_tokens() {
+        final EditableText text = Factory.createEditableText("<p>text</p>");
+        final List<String> changes = Lists.newArrayList();
+        final HtmlIncrementalLexer lexer = new HtmlIncrementalLexer(text, createHandler(changes));
+        assertEquals(getTokens(text), getTokens(lexer));
+
+        text.insert(5, "x");
+        assertEquals(getTokens(text), getTokens(lexer));
+        assertEquals("1:1:1", changes.get(0));
+
+        text.insert(0, "<!-- c -->");
+        assertEquals(getTokens(text), getTokens(lexer));
+        assertEquals("0:0:3", changes.get(1));
+
+        text.replace(10, 13, "<script>a('</p>')</script>");
+        assertEquals(getTokens(text), getTokens(lexer));
+        assertEquals(HtmlLexer.Token.createScript("a('</p>')"), lexer.getToken(4));
+
+        text.remove(0, text.getLength());
+        assertEquals(0, lexer.getTokenCount());
+    }
+
+    @Test
+    public void test_local_change() {
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            value.append("<p class='c'>text ").append(i).append("</p>\n");
+        }
+        final EditableText text = Factory.createEditableText(value);
+        final List<String> changes = Lists.newArrayList();
+        final HtmlIncrementalLexer lexer = new HtmlIncrementalLexer(text, createHandler(changes));
+        text.insert(value.indexOf("<p", value.length() / 2), "<b>bold</b>");
+        assertEquals(getTokens(text), getTokens(lexer));
+        assertEquals("2011:1:4", changes.get(0));
+    }
+
+    @Test
+    public void test_random_changes() {
+        final Random random = new Random(4);
+        for (int i = 0; i < 300; i++) {
+            final EditableText text = Factory.createEditableText(createHtml(random, random.nextInt(40)));
+            final List<String> values = Lists.newArrayList();
+            for (HtmlLexer.Token token : new HtmlLexer(text)) {
+                values.add(token.toString());
+            }
+            final HtmlIncrementalLexer[] lexers = new HtmlIncrementalLexer[1];
+            final HtmlIncrementalLexer lexer = new HtmlIncrementalLexer(text, new HtmlIncrementalLexerHandler() {
+                @Override
+                public void handle(int index, int removed, int inserted) {
+                    for (int j = 0; j < removed; j++) {
+                        values.remove(index);
+                    }
+                    for (int j = 0; j < inserted; j++) {
+                        values.add(index + j, lexers[0].getToken(index + j).toString());
+                    }
+                }
+            });
+            lexers[0] = lexer;
+            for (int j = 0; j < 20; j++) {
+                final long start = random.nextInt((int) text.getLength() + 1);
+                final long finish = start + random.nextInt((int) (text.getLength() - start) + 1);
+                text.replace(start, finish, createHtml(random, random.nextInt(4)));
+                final List<String> test = getTokens(text);
+                assertEquals(text.subSequence(0, text.getLength()).toString(), test, getTokens(lexer));
+                final List<String> testValues = Lists.newArrayList();
+                for (String token : test) {
+                    testValues.add(token.substring(token.indexOf(' ') + 1));
+                }
+                assertEquals(testValues, values);
+            }
+        }
+    }
+
+    private static String createHtml(Random random, int count) {
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            result.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        return result.toString();
+    }
+
+    private static HtmlIncrementalLexerHandler createHandler(final List<String> changes) {
+        return new HtmlIncrementalLexerHandler() {
+            @Override
+            public void handle(int index, int removed, int inserted) {
+                changes.add(index + ":" + removed + ":" + inserted);
+            }
+        };
+    }
+
+    private static List<String> getTokens(EditableText text) {
+        final List<String> result = Lists.newArrayList();
+        for (HtmlLexer.Token token : new HtmlLexer(Factory.createText(text.subSequence(0, text.getLength())
+                .toString()))) {
+            result.add(token.getStart() + "-" + token.getFinish() + " " + token);
+        }
+        return result;
+    }
+
+    private static List<String> getTokens(HtmlIncrementalLexer lexer) {
+        final List<String> result = Lists.newArrayList();
+        for (int i = 0; i < lexer.getTokenCount(); i++) {
+            final HtmlLexer.Token token = lexer.getToken(i);
+            result.add(token.getStart() + "-" + token.getFinish() + " " + token);
+        }
+        return result;
+    }
+}
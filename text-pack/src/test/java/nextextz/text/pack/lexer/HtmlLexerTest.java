@@ -1,16 +1,36 @@
 package nextextz.text.pack.lexer;
 
+import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
+import nextextz.text.pack.text.CloseableText;
 import nextextz.text.pack.text.Factory;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
-
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
 
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
 
 public class HtmlLexerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private HtmlLexerHandlerCollector handler;
     private Collection<HtmlLexer.Token> tokens;
 
@@ -347,6 +367,120 @@ public class HtmlLexerTest {
         assertTokens(tokens, test);
     }
 
+    @Test
+    public void test_script_finish_with_spaces() {
+        executeLexer(createLexer("<script>a< /b", handler), handler);
+        final Collection<HtmlLexer.Token> test = Lists.newArrayList(
+                HtmlLexer.Token.createTag("<script>"),
+                HtmlLexer.Token.createScript("a"),
+                HtmlLexer.Token.createTag("< /b"),
+                HtmlLexer.Token.getEmpty()
+        );
+        assertTokens(tokens, test);
+    }
+
+    @Test
+    public void test_non_latin_content() {
+        executeLexer(createLexer("<p>\u0442\u0435\u043a\u0441\u0442</p>", handler), handler);
+        final Collection<HtmlLexer.Token> test = Lists.newArrayList(
+                HtmlLexer.Token.createTag("<p>"),
+                HtmlLexer.Token.createContent("\u0442\u0435\u043a\u0441\u0442"),
+                HtmlLexer.Token.createTag("</p>"),
+                HtmlLexer.Token.getEmpty()
+        );
+        assertTokens(tokens, test);
+    }
+
+    @Test
+    public void test_mapped_file() throws IOException {
+        final Path path = folder.newFile("text.html").toPath();
+        Files.write(path, "<p>text</p><!-- c -->".getBytes(Charsets.US_ASCII));
+        final Collection<HtmlLexer.Token> test = Lists.newArrayList(
+                HtmlLexer.Token.createTag("<p>"),
+                HtmlLexer.Token.createContent("text"),
+                HtmlLexer.Token.createTag("</p>"),
+                HtmlLexer.Token.createTag("<!--"),
+                HtmlLexer.Token.createComments(" c "),
+                HtmlLexer.Token.createTag(">"),
+                HtmlLexer.Token.getEmpty()
+        );
+        try (CloseableText text = Factory.createText(path, Charsets.US_ASCII)) {
+            executeLexer(new HtmlLexer(text, handler), handler);
+            assertTokens(tokens, test);
+        }
+    }
+
+    @Test
+    public void test_bytes() {
+        final byte[] value = "  <a href='x'>text</a><style>s</style>".getBytes(Charsets.ISO_8859_1);
+        executeLexer(new HtmlLexer(Factory.createText(value, Charsets.ISO_8859_1), handler), handler);
+        final Collection<HtmlLexer.Token> test = Lists.newArrayList(
+                HtmlLexer.Token.createContent("  "),
+                HtmlLexer.Token.createTag("<a href='x'>"),
+                HtmlLexer.Token.createContent("text"),
+                HtmlLexer.Token.createTag("</a>"),
+                HtmlLexer.Token.createTag("<style>"),
+                HtmlLexer.Token.createStyle("s"),
+                HtmlLexer.Token.createTag("</style>"),
+                HtmlLexer.Token.getEmpty()
+        );
+        assertTokens(tokens, test);
+    }
+
+    @Test
+    public void test_utf8_bytes() {
+        final byte[] value = "<p>\u0442\u0435\u043a\u0441\u0442 \ud83d\ude00</p>".getBytes(Charsets.UTF_8);
+        executeLexer(new HtmlLexer(Factory.createUtf8Text(value), handler), handler);
+        final Collection<HtmlLexer.Token> test = Lists.newArrayList(
+                HtmlLexer.Token.createTag("<p>"),
+                HtmlLexer.Token.createContent("\u0442\u0435\u043a\u0441\u0442 \ud83d\ude00"),
+                HtmlLexer.Token.createTag("</p>"),
+                HtmlLexer.Token.getEmpty()
+        );
+        assertTokens(tokens, test);
+    }
+
+    @Test
+    public void test_reader() {
+        handler = new ValueHandlerCollector(tokens);
+        final HtmlLexer lexer = new HtmlLexer(Factory.createText(
+                new StringReader("<script> a('</p>'); </script><!-- c --><p>text</p>")), handler);
+        executeLexer(lexer, handler);
+        final Collection<HtmlLexer.Token> test = Lists.newArrayList(
+                HtmlLexer.Token.createTag("<script>"),
+                HtmlLexer.Token.createScript(" a('</p>'); "),
+                HtmlLexer.Token.createTag("</script>"),
+                HtmlLexer.Token.createTag("<!--"),
+                HtmlLexer.Token.createComments(" c "),
+                HtmlLexer.Token.createTag(">"),
+                HtmlLexer.Token.createTag("<p>"),
+                HtmlLexer.Token.createContent("text"),
+                HtmlLexer.Token.createTag("</p>"),
+                HtmlLexer.Token.getEmpty()
+        );
+        assertTokens(tokens, test);
+    }
+
+    @Test
+    public void test_composite() {
+        final HtmlLexer lexer = new HtmlLexer(Factory.createCompositeText(
+                "<scr", "ipt> a('</p>'); </scr", "ipt><!", "-- c -", "-><p>te", "xt</p>"), handler);
+        executeLexer(lexer, handler);
+        final Collection<HtmlLexer.Token> test = Lists.newArrayList(
+                HtmlLexer.Token.createTag("<script>"),
+                HtmlLexer.Token.createScript(" a('</p>'); "),
+                HtmlLexer.Token.createTag("</script>"),
+                HtmlLexer.Token.createTag("<!--"),
+                HtmlLexer.Token.createComments(" c "),
+                HtmlLexer.Token.createTag(">"),
+                HtmlLexer.Token.createTag("<p>"),
+                HtmlLexer.Token.createContent("text"),
+                HtmlLexer.Token.createTag("</p>"),
+                HtmlLexer.Token.getEmpty()
+        );
+        assertTokens(tokens, test);
+    }
+
     private static void executeLexer(HtmlLexer lexer, HtmlLexerHandlerCollector handler) {
         for (; ; ) {
             lexer.execute();
@@ -356,6 +490,297 @@ public class HtmlLexerTest {
         }
     }
 
+    @Test
+    public void test_token_offsets() {
+        executeLexer(createLexer("<p>text</p><!-- c --><script>s</script>", handler), handler);
+        final StringBuilder offsets = new StringBuilder();
+        for (HtmlLexer.Token token : tokens) {
+            offsets.append(token.getStart()).append('-').append(token.getFinish()).append(' ');
+        }
+        assertEquals("0-3 3-7 7-11 11-15 15-18 20-21 21-29 29-30 30-39 0-0 ", offsets.toString());
+        final HtmlLexer.Token content = Lists.newArrayList(tokens).get(1);
+        assertEquals(4, content.getLength());
+        assertEquals("text", content.getSequence().toString());
+        assertEquals("text", content.getValue());
+        assertTrue(content.getValue() == content.getValue());
+        assertEquals(HtmlLexer.Token.createContent("text"), content);
+    }
+
+    @Test
+    public void test_cursor() {
+        final String value = "<p class='abcdefghijklmnopqrstuvwxyz'>text</p><!-- c --><SCRIPT>s</script>";
+        final List<HtmlLexer.Token> cursorTokens = Lists.newArrayList();
+        final List<CharSequence> sequences = Lists.newArrayList();
+        final HtmlLexer lexer = new HtmlLexer(Factory.createText(value), new HtmlLexer.Options().setCursorHandler(
+                new HtmlLexerCursorHandler() {
+                    @Override
+                    public void handle(HtmlLexer.Cursor cursor) {
+                        cursorTokens.add(cursor.toToken());
+                        sequences.add(cursor.getSequence());
+                        assertEquals(cursor.getValue(), cursor.getSequence().toString());
+                    }
+                }));
+        do {
+            lexer.execute();
+        } while (cursorTokens.get(cursorTokens.size() - 1).getType() != HtmlLexer.TokenType.EMPTY);
+        executeLexer(createLexer(value, handler), handler);
+        assertEquals(Lists.newArrayList(tokens), cursorTokens);
+        assertTrue(sequences.get(0) == sequences.get(1));
+    }
+
+    @Test
+    public void test_iterator() {
+        final String value = "<p>text</p><!-- c --><style>s</style>";
+        final HtmlLexer lexer = new HtmlLexer(Factory.createText(value));
+        final List<HtmlLexer.Token> pulledTokens = Lists.newArrayList();
+        while (lexer.hasNext()) {
+            pulledTokens.add(lexer.next());
+        }
+        assertFalse(lexer.hasNext());
+        executeLexer(createLexer(value, handler), handler);
+        tokens.remove(HtmlLexer.Token.getEmpty());
+        assertEquals(Lists.newArrayList(tokens), pulledTokens);
+        assertEquals(pulledTokens, Lists.newArrayList(new HtmlLexer(Factory.createText(value))));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_execute_without_handler() {
+        new HtmlLexer(Factory.createText("<p>")).execute();
+    }
+
+    @Test
+    public void test_tags() {
+        final List<HtmlTag> tags = Lists.newArrayList();
+        for (HtmlLexer.Token token : new HtmlLexer(Factory.createText("<div class='a'><P>text</p><custom></div>"))) {
+            tags.add(token.getTag());
+        }
+        assertEquals(Lists.newArrayList(HtmlTag.DIV, HtmlTag.P, HtmlTag.UNKNOWN, HtmlTag.P, HtmlTag.UNKNOWN,
+                HtmlTag.DIV), tags);
+        assertEquals(HtmlTag.SPAN, HtmlLexer.Token.createTag("<span>").getTag());
+        assertEquals(HtmlTag.UNKNOWN, HtmlLexer.Token.createContent("<span>").getTag());
+    }
+
+    @Test
+    public void test_token_types() {
+        final String value = "<p>text</p><!-- c --><script>a='</p>'</script>x<style>s</style><br>";
+        final List<HtmlLexer.Token> allTokens = Lists.newArrayList(new HtmlLexer(Factory.createText(value)));
+        for (HtmlLexer.TokenType type : HtmlLexer.TokenType.values()) {
+            final EnumSet<HtmlLexer.TokenType> tokenTypes = EnumSet.of(type, HtmlLexer.TokenType.SCRIPT);
+            final List<HtmlLexer.Token> test = Lists.newArrayList();
+            for (HtmlLexer.Token token : allTokens) {
+                if (tokenTypes.contains(token.getType())) {
+                    test.add(token);
+                }
+            }
+            final List<HtmlLexer.Token> filteredTokens = Lists.newArrayList();
+            final List<String> offsets = Lists.newArrayList();
+            for (HtmlLexer.Token token : new HtmlLexer(Factory.createText(value),
+                    new HtmlLexer.Options().setTokenTypes(tokenTypes))) {
+                filteredTokens.add(token);
+                offsets.add(token.getStart() + "-" + token.getFinish());
+            }
+            assertEquals(test, filteredTokens);
+            final List<String> testOffsets = Lists.newArrayList();
+            for (HtmlLexer.Token token : test) {
+                testOffsets.add(token.getStart() + "-" + token.getFinish());
+            }
+            assertEquals(testOffsets, offsets);
+        }
+    }
+
+    @Test
+    public void test_token_types_with_handlers() {
+        final String value = "<a href='x'>link</a> text";
+        final EnumSet<HtmlLexer.TokenType> tokenTypes = EnumSet.of(HtmlLexer.TokenType.CONTENT);
+        executeLexer(new HtmlLexer(Factory.createText(value),
+                new HtmlLexer.Options().setTokenTypes(tokenTypes).setHandler(handler)), handler);
+        assertTokens(tokens, Lists.newArrayList(
+                HtmlLexer.Token.createContent("link"),
+                HtmlLexer.Token.createContent(" text"),
+                HtmlLexer.Token.getEmpty()
+        ));
+        final List<HtmlTag> tags = Lists.newArrayList();
+        final HtmlLexer lexer = new HtmlLexer(Factory.createText(value), new HtmlLexer.Options()
+                .setTokenTypes(EnumSet.of(HtmlLexer.TokenType.TAG))
+                .setCursorHandler(new HtmlLexerCursorHandler() {
+                    @Override
+                    public void handle(HtmlLexer.Cursor cursor) {
+                        tags.add(cursor.getTag());
+                    }
+                }));
+        for (int i = 0; i < 3; i++) {
+            lexer.execute();
+        }
+        assertEquals(Lists.newArrayList(HtmlTag.A, HtmlTag.A, HtmlTag.UNKNOWN), tags);
+    }
+
+    @Test
+    public void test_checkpoint() throws IOException, ClassNotFoundException {
+        final String value = "<p>text</p><!-- c --><script>a='</p>'</script>x<style>s</style><br>";
+        final List<HtmlLexer.Token> allTokens = Lists.newArrayList(new HtmlLexer(Factory.createText(value)));
+        final HtmlLexer lexer = new HtmlLexer(Factory.createText(value));
+        for (int i = 0; i <= allTokens.size(); i++) {
+            lexer.hasNext();
+            final HtmlLexer.Checkpoint checkpoint = copy(lexer.getCheckpoint());
+            assertEquals(lexer.getCheckpoint(), checkpoint);
+            final List<HtmlLexer.Token> test = allTokens.subList(i, allTokens.size());
+            assertEquals(test, Lists.newArrayList(new HtmlLexer(Factory.createText(value),
+                    new HtmlLexer.Options().setCheckpoint(checkpoint))));
+            final List<HtmlLexer.Token> handlerTokens = Lists.newArrayList();
+            final HtmlLexer handlerLexer = new HtmlLexer(Factory.createText(value), new HtmlLexer.Options()
+                    .setCheckpoint(checkpoint).setHandler(new HtmlLexerHandlerCollector(handlerTokens)));
+            for (int j = i; j < allTokens.size(); j++) {
+                handlerLexer.execute();
+            }
+            assertEquals(test, handlerTokens);
+            if (i < allTokens.size()) {
+                assertEquals(allTokens.get(i).getStart(), checkpoint.getPosition());
+                lexer.next();
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_max_token_size_illegal() {
+        new HtmlLexer.Options().setMaxTokenSize(1);
+    }
+
+    @Test
+    public void test_max_token_size() {
+        final String value = "<a href='http://x'>long text</a><!-- comments --><script>a = '</p>';</script>";
+        final List<HtmlLexer.Token> test = Lists.newArrayList(new HtmlLexer(Factory.createText(value),
+                new HtmlLexer.Options().setMaxTokenSize(4)));
+        assertEquals(Lists.newArrayList(
+                "TAG A START <a h", "TAG A CONTINUE ref=", "TAG A CONTINUE 'htt", "TAG A CONTINUE p://",
+                "TAG A END x'>",
+                "CONTENT UNKNOWN START long", "CONTENT UNKNOWN CONTINUE  tex", "CONTENT UNKNOWN END t",
+                "TAG A WHOLE </a>", "TAG UNKNOWN WHOLE <!--",
+                "COMMENTS UNKNOWN START  com", "COMMENTS UNKNOWN CONTINUE ment", "COMMENTS UNKNOWN END s ",
+                "TAG UNKNOWN WHOLE >",
+                "TAG SCRIPT START <scr", "TAG SCRIPT END ipt>",
+                "SCRIPT UNKNOWN START a = ", "SCRIPT UNKNOWN CONTINUE '</p", "SCRIPT UNKNOWN END >';",
+                "TAG SCRIPT START </sc", "TAG SCRIPT CONTINUE ript", "TAG SCRIPT END >"
+        ), toStrings(test));
+        assertEquals("type:\"TAG\", value:\"<a h\", fragment:\"START\"", test.get(0).toString());
+    }
+
+    @Test
+    public void test_max_token_size_same_tokens() {
+        final String[] pieces = {
+                "<", ">", " ", "  ", "-", "--", "!", "/", "script", "SCRIPT", "style", "p", "a", "'", "\"", "\\",
+                "*", "/*", "*/", "//", "\n", "<!--", "-->", "</", "</script>", "</style>", "<script>", "<style>",
+                "x", "text", "&amp;", "=", "< /", "<a href='x'>"
+        };
+        final Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            final StringBuilder value = new StringBuilder();
+            final int count = random.nextInt(40);
+            for (int j = 0; j < count; j++) {
+                value.append(pieces[random.nextInt(pieces.length)]);
+            }
+            final long maxTokenSize = 40 + random.nextInt(8);
+            final List<String> test = Lists.newArrayList();
+            for (HtmlLexer.Token token : new HtmlLexer(Factory.createText(value.toString()))) {
+                test.add(token.getType() + " " + token.getTag() + " " + token.getValue());
+            }
+            final List<String> tokens = Lists.newArrayList();
+            StringBuilder fragments = new StringBuilder();
+            for (HtmlLexer.Token token : new HtmlLexer(Factory.createText(value.toString()),
+                    new HtmlLexer.Options().setMaxTokenSize(maxTokenSize))) {
+                assertTrue(token.getLength() <= maxTokenSize);
+                fragments.append(token.getValue());
+                if (token.getFragment() == HtmlLexer.Fragment.WHOLE || token.getFragment() == HtmlLexer.Fragment.END) {
+                    tokens.add(token.getType() + " " + token.getTag() + " " + fragments);
+                    fragments = new StringBuilder();
+                }
+            }
+            assertEquals(value.toString(), test, tokens);
+        }
+    }
+
+    @Test
+    public void test_max_token_size_stream() {
+        final StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            script.append("var s = 'a</b>' + \"c\"; /* </d> */ // </e>\n");
+        }
+        final String value = "<p>text</p><script>" + script + "</script>";
+        final List<HtmlLexer.Token> fragments = Lists.newArrayList();
+        final HtmlLexer lexer = new HtmlLexer(Factory.createText(new StringReader(value)),
+                new HtmlLexer.Options().setMaxTokenSize(1000).setHandler(new ValueHandlerCollector(fragments)));
+        final StringBuilder test = new StringBuilder();
+        do {
+            lexer.execute();
+        } while (fragments.get(fragments.size() - 1).getType() != HtmlLexer.TokenType.EMPTY);
+        for (HtmlLexer.Token fragment : fragments) {
+            assertTrue(fragment.getLength() <= 1000);
+            if (fragment.getType() == HtmlLexer.TokenType.SCRIPT) {
+                test.append(fragment.getValue());
+            }
+        }
+        assertEquals(script.toString(), test.toString());
+        assertEquals(HtmlLexer.Fragment.START, fragments.get(4).getFragment());
+        assertEquals(HtmlLexer.Fragment.END, fragments.get(fragments.size() - 3).getFragment());
+    }
+
+    @Test
+    public void test_options() {
+        final String value = "<p>text</p><!-- comments --><script>a = '</p>';</script>x";
+        final HtmlLexer.Options options = new HtmlLexer.Options().setMaxTokenSize(6);
+        final List<HtmlLexer.Token> allTokens = Lists.newArrayList(new HtmlLexer(Factory.createText(value), options));
+        final HtmlLexer lexer = new HtmlLexer(Factory.createText(value), options);
+        lexer.next();
+        lexer.next();
+        final EnumSet<HtmlLexer.TokenType> tokenTypes = EnumSet.of(HtmlLexer.TokenType.TAG,
+                HtmlLexer.TokenType.COMMENTS);
+        final List<HtmlLexer.Token> test = Lists.newArrayList();
+        for (HtmlLexer.Token token : allTokens.subList(2, allTokens.size())) {
+            if (tokenTypes.contains(token.getType())) {
+                test.add(token);
+            }
+        }
+        final List<HtmlLexer.Token> tokens = Lists.newArrayList();
+        final HtmlLexerHandlerCollector handler = new HtmlLexerHandlerCollector(tokens);
+        options.setTokenTypes(tokenTypes).setCheckpoint(lexer.getCheckpoint()).setCursorHandler(
+                new HtmlLexerCursorHandler() {
+                    @Override
+                    public void handle(HtmlLexer.Cursor cursor) {
+                        throw new IllegalStateException();
+                    }
+                }).setHandler(handler);
+        executeLexer(new HtmlLexer(Factory.createText(value), options), handler);
+        test.add(HtmlLexer.Token.getEmpty());
+        assertEquals(toStrings(test), toStrings(tokens));
+        assertEquals("TAG P WHOLE </p>", toStrings(tokens).get(0));
+        assertEquals("COMMENTS UNKNOWN START  comme", toStrings(tokens).get(2));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_max_token_size_checkpoint() {
+        final HtmlLexer lexer = new HtmlLexer(Factory.createText("long text"),
+                new HtmlLexer.Options().setMaxTokenSize(4));
+        lexer.next();
+        lexer.getCheckpoint();
+    }
+
+    private static List<String> toStrings(List<HtmlLexer.Token> tokens) {
+        final List<String> result = Lists.newArrayList();
+        for (HtmlLexer.Token token : tokens) {
+            result.add(token.getType() + " " + token.getTag() + " " + token.getFragment() + " " + token.getValue());
+        }
+        return result;
+    }
+
+    private static HtmlLexer.Checkpoint copy(HtmlLexer.Checkpoint checkpoint)
+            throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(checkpoint);
+        output.close();
+        return (HtmlLexer.Checkpoint) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))
+                .readObject();
+    }
+
     private static HtmlLexer createLexer(String text, HtmlLexerHandler handler) {
         return new HtmlLexer(Factory.createText(text), handler);
     }
@@ -398,4 +823,19 @@ public class HtmlLexerTest {
             return result;
         }
     }
+
+    /**
+     * Takes values in handler, because symbols of stream are dropped after handling.
+     */
+    private static class ValueHandlerCollector extends HtmlLexerHandlerCollector {
+        public ValueHandlerCollector(Collection<HtmlLexer.Token> tokens) {
+            super(tokens);
+        }
+
+        @Override
+        public void handle(HtmlLexer.Token token) {
+            token.getValue();
+            super.handle(token);
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package nextextz.text.pack.lexer;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import nextextz.text.pack.text.CloseableText;
+import nextextz.text.pack.text.Factory;
+import nextextz.text.pack.text.Text;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static junit.framework.Assert.assertEquals;
+
+public class HtmlParallelLexerTest {
+    private static final String[] PIECES = {
+            "<", ">", " ", "  ", "-", "--", "!", "/", "script", "SCRIPT", "style", "p", "a", "'", "\"", "\\", "*",
+            "/*", "*/", "//", "\n", "<!--", "-->", "</", "</script>", "</style>", "<script>", "<style>", "x",
+            "text", "&amp;", "=", "< /", "<a href='x'>"
+    };
+
+    private static final String[] ELEMENTS = {
+            "<p class='a'>", "</p>", "text ", "&amp; ", "<!-- comments -->", "<script>a = '</p>'; // </p>\n</script>",
+            "<style>p {}</style>", "<br/>", "<a href=\"x\">", "</a>", "\n"
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(expected = NullPointerException.class)
+    public void test_null() {
+        new HtmlParallelLexer(null, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_chunk_size() {
+        new HtmlParallelLexer(Factory.createText(""), createHandler(Lists.<HtmlLexer.Token>newArrayList()),
+                new ForkJoinPool(), 0);
+    }
+
+    @Test
+    public void test_empty() {
+        assertEquals(Lists.newArrayList(HtmlLexer.Token.getEmpty()), execute(Factory.createText(""), 4));
+    }
+
+    @Test
+    public void test_split_tokens() {
+        final String value = "<p class='a'>text</p><!-- comments --><script>a = '</p>'; // </p>\n</script>"
+                + "<style>p {}</style>tail";
+        final Text text = Factory.createText(value);
+        final List<HtmlLexer.Token> test = executeHtmlLexer(text);
+        for (int chunkSize = 1; chunkSize <= value.length() + 1; chunkSize++) {
+            assertEquals(test, execute(text, chunkSize));
+        }
+        assertEquals(test, execute(text, 1 << 20));
+    }
+
+    @Test
+    public void test_same_tokens() {
+        final Random random = new Random(3);
+        final ForkJoinPool pool = new ForkJoinPool();
+        for (int i = 0; i < 1000; i++) {
+            final StringBuilder value = new StringBuilder();
+            final int count = random.nextInt(60);
+            for (int j = 0; j < count; j++) {
+                value.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+            final String html = value.toString();
+            final Text text = Factory.createText(html);
+            final List<HtmlLexer.Token> tokens = Lists.newArrayList();
+            new HtmlParallelLexer(text, createHandler(tokens), pool, 1 + random.nextInt(16)).execute();
+            assertEquals(html, executeHtmlLexer(text), tokens);
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void test_mapped_segments() throws Exception {
+        final Random random = new Random(5);
+        final StringBuilder value = new StringBuilder();
+        while (value.length() < 1 << 20) {
+            value.append(ELEMENTS[random.nextInt(ELEMENTS.length)]);
+        }
+        final String html = value.toString();
+        final Path path = folder.newFile("page.html").toPath();
+        Files.write(path, html.getBytes(Charsets.ISO_8859_1));
+        // Segments of 4K, so chunks are read from many segments by several threads.
+        final Method createText = Factory.class.getDeclaredMethod("createText", Path.class, Charset.class, int.class);
+        createText.setAccessible(true);
+        try (CloseableText text = (CloseableText) createText.invoke(null, path, Charsets.ISO_8859_1, 12)) {
+            final List<HtmlLexer.Token> test = executeHtmlLexer(Factory.createText(html));
+            assertEquals(test, execute(text, 5000));
+            assertEquals(test, execute(text, 1 << 16));
+        }
+    }
+
+    private static List<HtmlLexer.Token> execute(Text text, long chunkSize) {
+        final List<HtmlLexer.Token> result = Lists.newArrayList();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        new HtmlParallelLexer(text, createHandler(result), pool, chunkSize).execute();
+        pool.shutdown();
+        return result;
+    }
+
+    private static HtmlLexerHandler createHandler(final List<HtmlLexer.Token> tokens) {
+        return new HtmlLexerHandler() {
+            @Override
+            public void handle(HtmlLexer.Token token) {
+                tokens.add(token);
+            }
+        };
+    }
+
+    private static List<HtmlLexer.Token> executeHtmlLexer(Text text) {
+        final List<HtmlLexer.Token> result = Lists.newArrayList(new HtmlLexer(text));
+        result.add(HtmlLexer.Token.getEmpty());
+        return result;
+    }
+}
@@ -0,0 +1,150 @@
+package nextextz.text.pack.lexer;
+
+import com.google.common.collect.Lists;
+import nextextz.text.pack.text.Factory;
+import org.junit.Test;
+
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+
+public class HtmlPushLexerTest {
+    private static final String[] PIECES = {
+            "<", ">", " ", "  ", "-", "--", "!", "/", "script", "SCRIPT", "style", "p", "a", "'", "\"", "\\", "*",
+            "/*", "*/", "//", "\n", "<!--", "-->", "</", "</script>", "</style>", "<script>", "<style>", "x",
+            "text", "&amp;", "=", "< /", "<a href='x'>"
+    };
+
+    @Test(expected = NullPointerException.class)
+    public void test_null() {
+        new HtmlPushLexer((HtmlLexerHandler) null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_feed_after_end() {
+        final HtmlPushLexer lexer = new HtmlPushLexer(createHandler(Lists.<String>newArrayList()));
+        lexer.endOfInput();
+        lexer.feed("<p>".toCharArray());
+    }
+
+    @Test
+    public void test_complete_tokens() {
+        final List<String> tokens = Lists.newArrayList();
+        final HtmlPushLexer lexer = new HtmlPushLexer(createHandler(tokens));
+        lexer.feed("<p>te".toCharArray());
+        assertEquals(Lists.newArrayList(HtmlLexer.Token.createTag("<p>").toString()), tokens);
+        lexer.feed(CharBuffer.wrap("xt</p><scr"));
+        assertEquals(Lists.newArrayList(
+                HtmlLexer.Token.createTag("<p>").toString(),
+                HtmlLexer.Token.createContent("text").toString(),
+                HtmlLexer.Token.createTag("</p>").toString()
+        ), tokens);
+        lexer.feed("ipt>a = '</p>'</sc".toCharArray());
+        assertEquals(HtmlLexer.Token.createScript("a = '</p>'").toString(), tokens.get(4));
+        assertEquals(5, tokens.size());
+        lexer.feed("ript>".toCharArray());
+        lexer.endOfInput();
+        assertEquals(Lists.newArrayList(
+                HtmlLexer.Token.createTag("<p>").toString(),
+                HtmlLexer.Token.createContent("text").toString(),
+                HtmlLexer.Token.createTag("</p>").toString(),
+                HtmlLexer.Token.createTag("<script>").toString(),
+                HtmlLexer.Token.createScript("a = '</p>'").toString(),
+                HtmlLexer.Token.createTag("</script>").toString(),
+                HtmlLexer.Token.getEmpty().toString()
+        ), tokens);
+    }
+
+    @Test
+    public void test_same_tokens() {
+        final Random random = new Random(5);
+        for (int i = 0; i < 1000; i++) {
+            final StringBuilder value = new StringBuilder();
+            final int count = random.nextInt(60);
+            for (int j = 0; j < count; j++) {
+                value.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+            final String html = value.toString();
+            final List<String> test = Lists.newArrayList();
+            for (HtmlLexer.Token token : new HtmlLexer(Factory.createText(html))) {
+                test.add(token.toString());
+            }
+            test.add(HtmlLexer.Token.getEmpty().toString());
+
+            final List<String> tokens = Lists.newArrayList();
+            final HtmlPushLexer lexer = new HtmlPushLexer(createHandler(tokens));
+            final char[] symbols = html.toCharArray();
+            for (int start = 0; start < symbols.length; ) {
+                final int length = Math.min(symbols.length - start, random.nextInt(8));
+                lexer.feed(symbols, start, length);
+                start += length;
+            }
+            lexer.endOfInput();
+            assertEquals(html, test, tokens);
+        }
+    }
+
+    /**
+     * Feeds long tokens by small chunks: scanning is continued after every chunk, so time is linear.
+     */
+    @Test(timeout = 10000)
+    public void test_long_tokens() {
+        final StringBuilder value = new StringBuilder();
+        while (value.length() < 1 << 20) {
+            value.append("var s = 'a</b>' + \"c\"; /* </d> */ a < b; // </e>\n");
+        }
+        final String script = value.toString();
+        final String text = script.replace('<', ' ').replace('>', ' ');
+        final String comments = " " + script.replace('-', ' ');
+        final String tag = "<a title='" + text + "'>";
+        final String html = "<script>" + script + "</script>" + text + "<!--" + comments + "-->" + tag;
+
+        final List<String> tokens = Lists.newArrayList();
+        final HtmlPushLexer lexer = new HtmlPushLexer(createHandler(tokens));
+        final char[] symbols = html.toCharArray();
+        for (int start = 0; start < symbols.length; start += 64) {
+            lexer.feed(symbols, start, Math.min(symbols.length - start, 64));
+        }
+        lexer.endOfInput();
+        assertEquals(Lists.newArrayList(
+                HtmlLexer.Token.createTag("<script>").toString(),
+                HtmlLexer.Token.createScript(script).toString(),
+                HtmlLexer.Token.createTag("</script>").toString(),
+                HtmlLexer.Token.createContent(text).toString(),
+                HtmlLexer.Token.createTag("<!--").toString(),
+                HtmlLexer.Token.createComments(comments).toString(),
+                HtmlLexer.Token.createTag(">").toString(),
+                HtmlLexer.Token.createTag(tag).toString(),
+                HtmlLexer.Token.getEmpty().toString()
+        ), tokens);
+    }
+
+    @Test
+    public void test_cursor() {
+        final List<String> tokens = Lists.newArrayList();
+        final HtmlPushLexer lexer = new HtmlPushLexer(new HtmlLexerCursorHandler() {
+            @Override
+            public void handle(HtmlLexer.Cursor cursor) {
+                tokens.add(cursor.getStart() + "-" + cursor.getFinish() + " " + cursor.getTag());
+            }
+        });
+        lexer.feed("<a href='x'>".toCharArray());
+        lexer.feed("link</a>".toCharArray());
+        lexer.endOfInput();
+        assertEquals(Lists.newArrayList("0-12 A", "12-16 UNKNOWN", "16-20 A", "20-20 UNKNOWN"), tokens);
+    }
+
+    /**
+     * Takes values in handler, because symbols are dropped after handling.
+     */
+    private static HtmlLexerHandler createHandler(final List<String> tokens) {
+        return new HtmlLexerHandler() {
+            @Override
+            public void handle(HtmlLexer.Token token) {
+                tokens.add(token.toString());
+            }
+        };
+    }
+}
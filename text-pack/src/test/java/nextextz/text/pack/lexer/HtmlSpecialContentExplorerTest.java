@@ -4,6 +4,7 @@ import com.google.common.collect.Lists;
 import nextextz.text.pack.text.Factory;
 import org.junit.Test;
 
+import java.io.StringReader;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -49,6 +50,17 @@ public class HtmlSpecialContentExplorerTest {
         assertParts(parts, Lists.newArrayList("1\'", "2\'3\""));
     }
 
+    @Test
+    public void test_reader() {
+        final Collection<String> parts = Lists.newArrayList();
+        final String text = "v='1'; // 2\n";
+        final HtmlSpecialContentExplorerHandler handler = new HtmlSpecialContentExplorerHandlerCollector(text, parts);
+        final HtmlSpecialContentExplorer explorer =
+                new HtmlSpecialContentExplorer(Factory.createSymbolProvider(new StringReader(text)), handler);
+        executeExplorer(explorer);
+        assertParts(parts, Lists.newArrayList("1\'", " 2\n"));
+    }
+
     private static void executeExplorer(HtmlSpecialContentExplorer explorer) {
         for (; ; ) {
             final boolean next = explorer.execute();
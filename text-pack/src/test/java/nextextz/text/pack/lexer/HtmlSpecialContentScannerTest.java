@@ -0,0 +1,81 @@
+package nextextz.text.pack.lexer;
+
+import nextextz.text.pack.text.Factory;
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class HtmlSpecialContentScannerTest {
+    @Test
+    public void test_finish() {
+        assertScan("a = 1;", "</script>");
+        assertScan("a = 1;", "< / script>");
+        assertScan("", "</style>");
+        assertScan("if (a <b) {}", "</script>");
+    }
+
+    @Test
+    public void test_strings() {
+        assertScan("s = '</script>';", "</script>");
+        assertScan("s = \"</p> '\";", "</script>");
+        assertScan("s = \\'", "</script>");
+    }
+
+    @Test
+    public void test_comments() {
+        assertScan("/* </p> */ x", "</script>");
+        assertScan("// </p>\n x", "</script>");
+        assertScan("<!-- </p> --> x", "</script>");
+        assertScan("/* // </p>\n */ x", "</script>");
+        assertScan("a /*/ </p> */", "</script>");
+    }
+
+    @Test
+    public void test_long_content() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("var s = 'a</b>' + \"c\"; /* </d> */ // </e>\n");
+        }
+        assertScan(builder.toString(), "</script>");
+    }
+
+    @Test
+    public void test_end_of_text() {
+        assertEquals(5, scan("<p>ab", 3));
+        assertEquals(5, scan("<p>ab<c", 3));
+        assertEquals(8, scan("<p>/* <c", 3));
+        assertEquals(3, scan("<p>", 3));
+    }
+
+    @Test
+    public void test_limit() {
+        final String value = "<script>var s = '</p>'; /* </p> */ if (a < b) {} // </p>\n</script>";
+        final long test = scan(value, 8);
+        for (int size = 1; size < value.length(); size++) {
+            final HtmlSpecialContentScanner scanner = new HtmlSpecialContentScanner(Factory.createText(value), 8);
+            long finish = 8;
+            do {
+                final long start = finish;
+                finish = scanner.scan(start + size);
+                assertTrue(finish - start <= size);
+            } while (scanner.isCut());
+            assertEquals(test, finish);
+        }
+        final HtmlSpecialContentScanner scanner = new HtmlSpecialContentScanner(Factory.createText("<p>a < b"), 3);
+        assertEquals(5, scanner.scan(7));
+        assertTrue(scanner.isCut());
+        assertEquals(5, scanner.scan(Long.MAX_VALUE));
+        assertFalse(scanner.isCut());
+    }
+
+    private static void assertScan(String content, String finish) {
+        final String prefix = "<script>";
+        assertEquals(prefix.length() + content.length(), scan(prefix + content + finish, prefix.length()));
+    }
+
+    private static long scan(String value, long start) {
+        return new HtmlSpecialContentScanner(Factory.createText(value), start).scan();
+    }
+}
@@ -0,0 +1,107 @@
+package nextextz.text.pack.lexer;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import nextextz.text.pack.text.Factory;
+import nextextz.text.pack.text.Text;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+
+public class HtmlStateMachineLexerTest {
+    private static final String[] PIECES = {
+            "<", ">", " ", "  ", "-", "--", "!", "/", "script", "SCRIPT", "Style", "style", "p", "a", "'", "\"",
+            "\\", "*", "/*", "*/", "//", "\n", "<!--", "-->", "</", "</script>", "</style>", "<script>", "<style>",
+            "x", "\u044f", "\u017fcript", "&amp;", "=", "< /", "<a href='x'>"
+    };
+
+    @Test(expected = NullPointerException.class)
+    public void test_null() {
+        new HtmlStateMachineLexer(null, null);
+    }
+
+    @Test
+    public void test_tokens() {
+        final String value = "  <a href='x'>text</a><!-- c --><SCRIPT type='t'> a('</p>'); </script>"
+                + "<style>p {}</style><  script >s</script>>";
+        final List<HtmlLexer.Token> tokens = execute(Factory.createText(value));
+        final List<HtmlLexer.Token> test = Lists.newArrayList(
+                HtmlLexer.Token.createContent("  "),
+                HtmlLexer.Token.createTag("<a href='x'>"),
+                HtmlLexer.Token.createContent("text"),
+                HtmlLexer.Token.createTag("</a>"),
+                HtmlLexer.Token.createTag("<!--"),
+                HtmlLexer.Token.createComments(" c "),
+                HtmlLexer.Token.createTag(">"),
+                HtmlLexer.Token.createTag("<SCRIPT type='t'>"),
+                HtmlLexer.Token.createScript(" a('</p>'); "),
+                HtmlLexer.Token.createTag("</script>"),
+                HtmlLexer.Token.createTag("<style>"),
+                HtmlLexer.Token.createStyle("p {}"),
+                HtmlLexer.Token.createTag("</style>"),
+                HtmlLexer.Token.createTag("<  script >"),
+                HtmlLexer.Token.createContent("s"),
+                HtmlLexer.Token.createTag("</script>"),
+                HtmlLexer.Token.createTag(">"),
+                HtmlLexer.Token.getEmpty()
+        );
+        assertEquals(test, tokens);
+    }
+
+    @Test
+    public void test_same_tokens() {
+        final Random random = new Random(1);
+        for (int i = 0; i < 3000; i++) {
+            final StringBuilder value = new StringBuilder();
+            final int count = random.nextInt(30);
+            for (int j = 0; j < count; j++) {
+                value.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+            final String html = value.toString();
+            final List<HtmlLexer.Token> tokens = execute(Factory.createText(html));
+            final List<HtmlLexer.Token> test = executeHtmlLexer(Factory.createText(html));
+            assertEquals(html, test, tokens);
+            for (int j = 0; j < tokens.size(); j++) {
+                assertEquals(html, test.get(j).getTag(), tokens.get(j).getTag());
+            }
+        }
+    }
+
+    @Test
+    public void test_same_tokens_bytes() {
+        final Random random = new Random(2);
+        for (int i = 0; i < 1000; i++) {
+            final StringBuilder value = new StringBuilder();
+            final int count = random.nextInt(30);
+            for (int j = 0; j < count; j++) {
+                value.append(PIECES[random.nextInt(PIECES.length)].replace('\u044f', 'y').replace('\u017f', 's'));
+            }
+            final byte[] html = value.toString().getBytes(Charsets.ISO_8859_1);
+            assertEquals(value.toString(), executeHtmlLexer(Factory.createText(html, Charsets.ISO_8859_1)),
+                    execute(Factory.createText(html, Charsets.ISO_8859_1)));
+        }
+    }
+
+    private static List<HtmlLexer.Token> execute(Text text) {
+        final List<HtmlLexer.Token> result = Lists.newArrayList();
+        final HtmlStateMachineLexer lexer = new HtmlStateMachineLexer(text, new HtmlLexerHandler() {
+            @Override
+            public void handle(HtmlLexer.Token token) {
+                result.add(token);
+            }
+        });
+        do {
+            lexer.execute();
+        } while (result.get(result.size() - 1).getType() != HtmlLexer.TokenType.EMPTY);
+        return result;
+    }
+
+    private static List<HtmlLexer.Token> executeHtmlLexer(Text text) {
+        final List<HtmlLexer.Token> result = Lists.newArrayList(new HtmlLexer(text));
+        result.add(HtmlLexer.Token.getEmpty());
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package nextextz.text.pack.lexer;
+
+import com.google.common.base.Preconditions;
+import nextextz.text.pack.text.Factory;
+import nextextz.text.pack.text.Text;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Locale;
+
+import static junit.framework.Assert.assertEquals;
+
+public class HtmlTagTest {
+    @Test(expected = NullPointerException.class)
+    public void test_null() {
+        HtmlTag.forName(null);
+    }
+
+    @Test
+    public void test_for_name() {
+        for (HtmlTag tag : HtmlTag.values()) {
+            if (tag != HtmlTag.UNKNOWN) {
+                assertEquals(tag, HtmlTag.forName(tag.getTagName()));
+                assertEquals(tag, HtmlTag.forName(tag.getTagName().toUpperCase()));
+            }
+        }
+        assertEquals(HtmlTag.DIV, HtmlTag.forName("DiV"));
+        assertEquals(HtmlTag.H1, HtmlTag.forName("h1"));
+        assertEquals(HtmlTag.UNKNOWN, HtmlTag.forName(""));
+        assertEquals(HtmlTag.UNKNOWN, HtmlTag.forName("tag"));
+        assertEquals(HtmlTag.UNKNOWN, HtmlTag.forName("di"));
+        assertEquals(HtmlTag.UNKNOWN, HtmlTag.forName("divv"));
+        assertEquals(HtmlTag.UNKNOWN, HtmlTag.forName("d\u0456v"));
+        assertEquals(HtmlTag.UNKNOWN, HtmlTag.forName("blockquoteblockquote"));
+        assertEquals("", HtmlTag.UNKNOWN.getTagName());
+    }
+
+    @Test
+    public void test_find() {
+        assertEquals(HtmlTag.P, find("<p>"));
+        assertEquals(HtmlTag.P, find("</P>"));
+        assertEquals(HtmlTag.BR, find("<br/>"));
+        assertEquals(HtmlTag.A, find("<a href='x'>"));
+        assertEquals(HtmlTag.TABLE, find("< / table\n>"));
+        assertEquals(HtmlTag.SCRIPT, find("<script"));
+        assertEquals(HtmlTag.UNKNOWN, find("<!--"));
+        assertEquals(HtmlTag.UNKNOWN, find(">"));
+        assertEquals(HtmlTag.UNKNOWN, find("<>"));
+        assertEquals(HtmlTag.UNKNOWN, find("<p\u044f>"));
+    }
+
+    /**
+     * Loads tags again under Turkish locale, in which 'I' is not lower-cased to 'i'.
+     */
+    @Test
+    public void test_turkish_locale() throws Exception {
+        final Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            final ClassLoader loader = new URLClassLoader(new URL[]{
+                    HtmlTag.class.getProtectionDomain().getCodeSource().getLocation(),
+                    Preconditions.class.getProtectionDomain().getCodeSource().getLocation()
+            }, null);
+            final Method forName = loader.loadClass(HtmlTag.class.getName()).getMethod("forName", CharSequence.class);
+            assertEquals(HtmlTag.DIV.name(), forName.invoke(null, "div").toString());
+            assertEquals(HtmlTag.IFRAME.name(), forName.invoke(null, "IFRAME").toString());
+            assertEquals(HtmlTag.LI.name(), forName.invoke(null, "li").toString());
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    private static HtmlTag find(String value) {
+        final Text text = Factory.createText(value);
+        return HtmlTag.find(text, 0, text.getLength());
+    }
+}
@@ -8,7 +8,10 @@ import org.junit.Test;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
 
 public class MathExpressionLexerTest {
@@ -136,6 +139,28 @@ public class MathExpressionLexerTest {
         }
     }
 
+    @Test
+    public void test_iterator() {
+        final MathExpressionLexer lexer = new MathExpressionLexer(Factory.createText("(9 + 1)"),
+                Constants.NUMBERS, Constants.SIMPLE_MATH_OPERATIONS, Constants.BRACKETS, Constants.NUMBER_SEPARATOR);
+        final Collection<MathExpressionLexer.Token> test = Lists.newArrayList(
+                MathExpressionLexer.Token.createBracket("("),
+                MathExpressionLexer.Token.createNumber("9"),
+                MathExpressionLexer.Token.createOperation("+"),
+                MathExpressionLexer.Token.createNumber("1"),
+                MathExpressionLexer.Token.createBracket(")")
+        );
+        assertEquals(test, Lists.newArrayList(lexer));
+        assertFalse(lexer.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_next_without_token() {
+        final MathExpressionLexer lexer = new MathExpressionLexer(Factory.createText(" "),
+                Constants.NUMBERS, Constants.SIMPLE_MATH_OPERATIONS, Constants.BRACKETS, Constants.NUMBER_SEPARATOR);
+        lexer.next();
+    }
+
     private static MathExpressionLexer createLexer(String text, MathExpressionLexerHandler handler) {
         return createLexer(text, handler, Constants.SIMPLE_MATH_OPERATIONS);
     }
@@ -4,9 +4,11 @@ import com.google.common.collect.Maps;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Map;
 
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
 
 public class UtilsTest {
@@ -30,4 +32,12 @@ public class UtilsTest {
             }
         }
     }
+
+    @Test
+    public void test_create_symbol_set() {
+        final BitSet symbols = Utils.createSymbolSet(Arrays.asList('(', null, '\u044f'));
+        assertTrue(symbols.get('('));
+        assertTrue(symbols.get('\u044f'));
+        assertFalse(symbols.get(')'));
+    }
 }
@@ -0,0 +1,99 @@
+package nextextz.text.pack.text;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+public class BlockGzipTextTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_read() throws IOException {
+        final String value = createValue(20000);
+        final Path path = createFile(value, Charsets.ISO_8859_1);
+        try (CloseableText text = Factory.createBlockGzipText(path, Charsets.ISO_8859_1)) {
+            assertEquals(value.length(), text.getLength());
+            final Random random = new Random(1);
+            for (int i = 0; i < 10000; i++) {
+                final int index = random.nextInt(value.length());
+                assertEquals(value.charAt(index), text.read(index));
+            }
+            assertEquals(Text.END, text.read(value.length()));
+            assertEquals(value.substring(65000, 66000), text.subSequence(65000, 66000).toString());
+            assertEquals(value.indexOf('<', 65270), ((ByteText) text).find(65270, '<', '>'));
+        }
+    }
+
+    @Test
+    public void test_utf8() throws IOException {
+        final String value = "<p>\u044f</p>";
+        final Path path = createFile(value, Charsets.UTF_8);
+        try (CloseableText text = Factory.createBlockGzipText(path, Charsets.UTF_8)) {
+            assertEquals(value, text.subSequence(0, text.getLength()).toString());
+        }
+    }
+
+    @Test
+    public void test_cache() throws IOException {
+        final String value = createValue(20000);
+        final Path path = createFile(value, Charsets.ISO_8859_1);
+        try (BlockGzipBytes bytes = new BlockGzipBytes(path, 2)) {
+            assertTrue(bytes.getBlockCount() > 2);
+            for (long i = 0; i < bytes.size(); i++) {
+                assertEquals((byte) value.charAt((int) i), bytes.get(i));
+            }
+            assertEquals(2, bytes.getCachedBlockCount());
+        }
+    }
+
+    @Test
+    public void test_gzip_compatibility() throws IOException {
+        final String value = createValue(20000);
+        final Path path = createFile(value, Charsets.ISO_8859_1);
+        try (InputStream stream = new GZIPInputStream(Files.newInputStream(path))) {
+            assertEquals(value, new String(ByteStreams.toByteArray(stream), Charsets.ISO_8859_1));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void test_not_block_gzip() throws IOException {
+        final Path path = folder.newFile("text.gz").toPath();
+        try (OutputStream stream = new GZIPOutputStream(Files.newOutputStream(path))) {
+            stream.write("<p>".getBytes(Charsets.US_ASCII));
+        }
+        Factory.createBlockGzipText(path, Charsets.US_ASCII);
+    }
+
+    private Path createFile(String value, Charset charset) throws IOException {
+        final Path path = folder.newFile("text.bgz").toPath();
+        try (OutputStream stream = new BlockGzipOutputStream(Files.newOutputStream(path))) {
+            stream.write(value.getBytes(charset));
+        }
+        return path;
+    }
+
+    private static String createValue(int count) {
+        final StringBuilder result = new StringBuilder();
+        final Random random = new Random(count);
+        for (int i = 0; i < count; i++) {
+            result.append("<p>").append(random.nextInt()).append("</p>");
+        }
+        return result.toString();
+    }
+}
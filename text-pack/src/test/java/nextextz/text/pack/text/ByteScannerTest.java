@@ -0,0 +1,47 @@
+package nextextz.text.pack.text;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+
+public class ByteScannerTest {
+    @Test
+    public void test_index_of() {
+        final ByteBuffer buffer = ByteBuffer.wrap("<p>some text</p>".getBytes());
+        assertEquals(0, ByteScanner.indexOf(buffer, 0, 16, (byte) '<', (byte) '>'));
+        assertEquals(2, ByteScanner.indexOf(buffer, 1, 16, (byte) '<', (byte) '>'));
+        assertEquals(12, ByteScanner.indexOf(buffer, 3, 16, (byte) '<', (byte) '>'));
+        assertEquals(-1, ByteScanner.indexOf(buffer, 3, 12, (byte) '<', (byte) '>'));
+        assertEquals(-1, ByteScanner.indexOf(buffer, 16, 16, (byte) '<', (byte) '>'));
+    }
+
+    @Test
+    public void test_random() {
+        final Random random = new Random(1);
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            for (int i = 0; i < 2000; i++) {
+                final byte[] data = new byte[random.nextInt(40)];
+                for (int j = 0; j < data.length; j++) {
+                    data[j] = (byte) (random.nextInt(8) - 4 + (random.nextBoolean() ? 0x3C : 0x80));
+                }
+                final byte first = (byte) (random.nextBoolean() ? 0x3C : 0x80);
+                final byte second = (byte) (random.nextInt(8) - 4 + 0x3E);
+                final int start = data.length == 0 ? 0 : random.nextInt(data.length);
+                final int finish = start + random.nextInt(data.length - start + 1);
+                int expected = -1;
+                for (int j = start; j < finish; j++) {
+                    if (data[j] == first || data[j] == second) {
+                        expected = j;
+                        break;
+                    }
+                }
+                final ByteBuffer buffer = ByteBuffer.wrap(data).order(order);
+                assertEquals(expected, ByteScanner.indexOf(buffer, start, finish, first, second));
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package nextextz.text.pack.text;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+
+public class CompositeTextTest {
+    @Test(expected = NullPointerException.class)
+    public void test_null_segment() {
+        Factory.createCompositeText(Factory.createText("a"), null);
+    }
+
+    @Test
+    public void test_read() {
+        final CompositeText text = new CompositeText(Lists.newArrayList(
+                new TextLight("<p>"), new TextLight(""), new TextLight("te"), new TextLight("xt</p>")));
+        assertEquals(3, text.getSegmentCount());
+        assertEquals(11, text.getLength());
+        final String value = "<p>text</p>";
+        for (int i = 0; i < value.length(); i++) {
+            assertEquals(value.charAt(i), text.read(i));
+        }
+        assertEquals('x', text.read(5));
+        assertEquals('<', text.read(0));
+        assertEquals(Text.END, text.read(11));
+        assertEquals(Text.END, text.read(-1));
+    }
+
+    @Test
+    public void test_random_read() {
+        final String value = "<p>text</p><div>\u044f</div>";
+        final Text text = Factory.createCompositeText("<p>t", "ext</", "p><div>", "\u044f", "</div>");
+        final Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            final int index = random.nextInt(value.length());
+            assertEquals(value.charAt(index), text.read(index));
+        }
+    }
+
+    @Test
+    public void test_read_buffer() {
+        final Text text = Factory.createCompositeText("<p>t", "ext</", "p>");
+        final char[] buffer = new char[8];
+        assertEquals(8, text.read(2, buffer, 0, 8));
+        assertEquals(">text</p", new String(buffer));
+        assertEquals(2, text.read(9, buffer, 0, 8));
+        assertEquals(Text.END, text.read(11, buffer, 0, 8));
+        assertEquals(0, text.read(0, buffer, 0, 0));
+    }
+
+    @Test
+    public void test_sub_sequence() {
+        final Text text = Factory.createCompositeText("<p>t", "ext</", "p>");
+        assertEquals("ex", text.subSequence(4, 6).toString());
+        assertEquals("text", text.subSequence(3, 7).toString());
+        assertEquals("", text.subSequence(4, 4).toString());
+        assertEquals("<p>text</p>", text.subSequence(0, 11).toString());
+    }
+
+    @Test
+    public void test_empty() {
+        final Text text = Factory.createCompositeText(new Text[0]);
+        assertEquals(0, text.getLength());
+        assertEquals(Text.END, text.read(0));
+        assertEquals("", text.subSequence(0, 0).toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_release() {
+        final Text first = Factory.createText(new StringReader("<p>text"));
+        final Text second = Factory.createText(new StringReader("</p>"));
+        final Text text = Factory.createCompositeText(first, second);
+        text.release(9);
+        assertEquals('p', text.read(9));
+        text.read(2);
+    }
+}
@@ -0,0 +1,106 @@
+package nextextz.text.pack.text;
+
+import com.google.common.base.Charsets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+public class MappedTextTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_multi_byte_charset() throws IOException {
+        Factory.createText(createFile("<p>"), Charsets.UTF_16);
+    }
+
+    @Test
+    public void test_read() throws IOException {
+        final String value = "<p>text</p>";
+        try (CloseableText text = Factory.createText(createFile(value), Charsets.US_ASCII)) {
+            assertEquals(value.length(), text.getLength());
+            assertText(value, text);
+        }
+    }
+
+    @Test
+    public void test_read_segments() throws IOException {
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            value.append("<p>").append(i).append("</p>");
+        }
+        try (CloseableText text = Factory.createText(createFile(value.toString()), Charsets.ISO_8859_1, 4)) {
+            assertText(value.toString(), text);
+            assertEquals('<', text.read(0));
+            assertEquals('>', text.read(value.length() - 1));
+            assertEquals('<', text.read(0));
+        }
+    }
+
+    @Test
+    public void test_bulk_read() throws IOException {
+        final String value = "<p>text</p>";
+        try (CloseableText text = Factory.createText(createFile(value), Charsets.US_ASCII, 2)) {
+            final char[] buffer = new char[8];
+            assertEquals(8, text.read(3, buffer, 0, 8));
+            assertEquals("text</p>", new String(buffer));
+            assertEquals(Text.END, text.read(11, buffer, 0, 8));
+            assertEquals("ext<", text.subSequence(4, 8).toString());
+            assertEquals('x', text.subSequence(4, 8).subSequence(1, 2).charAt(0));
+        }
+    }
+
+    @Test
+    public void test_find_segments() throws IOException {
+        final String value = "text text text <p>";
+        try (CloseableText text = Factory.createText(createFile(value), Charsets.US_ASCII, 2)) {
+            assertTrue(text instanceof ByteText);
+            assertEquals(15, ((ByteText) text).find(0, '<', '>'));
+            assertEquals(17, ((ByteText) text).find(16, '<', '>'));
+            assertEquals(-1, ((ByteText) text).find(18, '<', '>'));
+        }
+    }
+
+    @Test
+    public void test_utf8() throws IOException {
+        final Path path = folder.newFile("utf8.txt").toPath();
+        Files.write(path, "<p>\u044f</p>".getBytes(Charsets.UTF_8));
+        try (CloseableText text = Factory.createText(path, Charsets.UTF_8)) {
+            assertEquals(8, text.getLength());
+            assertEquals('\u044f', text.read(3));
+            assertEquals("</p>", text.subSequence(4, 8).toString());
+        }
+    }
+
+    @Test
+    public void test_single_byte_charset() throws IOException {
+        final Path path = folder.newFile("cp1251.txt").toPath();
+        Files.write(path, new byte[]{(byte) 0xFF});
+        try (CloseableText text = Factory.createText(path, Charset.forName("windows-1251"))) {
+            assertEquals('\u044f', text.read(0));
+        }
+    }
+
+    private Path createFile(String value) throws IOException {
+        final File file = folder.newFile("text.txt");
+        Files.write(file.toPath(), value.getBytes(Charsets.ISO_8859_1));
+        return file.toPath();
+    }
+
+    private static void assertText(String value, Text text) {
+        for (int i = 0; i < value.length(); i++) {
+            assertEquals(value.charAt(i), text.read(i));
+        }
+        assertEquals(Text.END, text.read(value.length()));
+        assertEquals(Text.END, text.read(-1));
+    }
+}
@@ -0,0 +1,101 @@
+package nextextz.text.pack.text;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+
+public class PieceTextTest {
+    @Test(expected = NullPointerException.class)
+    public void test_null() {
+        Factory.createEditableText(null);
+    }
+
+    @Test
+    public void test_edit() {
+        final EditableText text = Factory.createEditableText("<p>text</p>");
+        text.insert(3, "new ");
+        assertEquals("<p>new text</p>", toString(text));
+        text.remove(0, 3);
+        assertEquals("new text</p>", toString(text));
+        text.replace(4, 8, "value");
+        assertEquals("new value</p>", toString(text));
+        text.insert(text.getLength(), "!");
+        assertEquals("new value</p>!", toString(text));
+        text.remove(0, text.getLength());
+        assertEquals(0, text.getLength());
+        assertEquals(Text.END, text.read(0));
+        text.insert(0, "a");
+        assertEquals("a", toString(text));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_out_of_text() {
+        Factory.createEditableText("<p>").insert(4, "a");
+    }
+
+    @Test
+    public void test_typing() {
+        final PieceText text = new PieceText("<p></p>");
+        final String value = "text";
+        for (int i = 0; i < value.length(); i++) {
+            text.insert(3 + i, value.substring(i, i + 1));
+        }
+        assertEquals("<p>text</p>", toString(text));
+        assertEquals(3, text.getPieceCount());
+    }
+
+    @Test
+    public void test_random_edits() {
+        final Random random = new Random(1);
+        final StringBuilder expected = new StringBuilder("<html><body><p>text</p></body></html>");
+        final EditableText text = Factory.createEditableText(expected.toString());
+        for (int i = 0; i < 2000; i++) {
+            final int start = random.nextInt(expected.length() + 1);
+            final int finish = start + random.nextInt(Math.min(5, expected.length() - start) + 1);
+            final String value = random.nextBoolean() ? "" : Integer.toString(random.nextInt(1000));
+            expected.replace(start, finish, value);
+            text.replace(start, finish, value);
+            if (i % 100 == 0) {
+                assertEquals(expected.toString(), toString(text));
+                for (int j = 0; j < 20; j++) {
+                    final int index = random.nextInt(expected.length());
+                    assertEquals(expected.charAt(index), text.read(index));
+                }
+            }
+        }
+        assertEquals(expected.toString(), toString(text));
+        assertEquals(expected.toString(), text.subSequence(0, text.getLength()).toString());
+    }
+
+    @Test
+    public void test_handler() {
+        final List<String> changes = Lists.newArrayList();
+        final TextChangeHandler handler = new TextChangeHandler() {
+            @Override
+            public void handle(long offset, long removed, long inserted) {
+                changes.add(offset + ":" + removed + ":" + inserted);
+            }
+        };
+        final EditableText text = Factory.createEditableText("<p>text</p>");
+        text.addChangeHandler(handler);
+        text.insert(3, "new ");
+        text.replace(7, 11, "value");
+        text.remove(0, 3);
+        text.remove(0, 0);
+        text.removeChangeHandler(handler);
+        text.insert(0, "<p>");
+        assertEquals(Lists.newArrayList("3:0:4", "7:4:5", "0:3:0"), changes);
+    }
+
+    private static String toString(Text text) {
+        final StringBuilder result = new StringBuilder();
+        for (long i = 0; i < text.getLength(); i++) {
+            result.append((char) text.read(i));
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package nextextz.text.pack.text;
+
+import com.google.common.base.Charsets;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import static junit.framework.Assert.assertEquals;
+
+public class SingleByteTextTest {
+    @Test(expected = IllegalArgumentException.class)
+    public void test_multi_byte_charset() {
+        Factory.createText(new byte[0], Charsets.UTF_8);
+    }
+
+    @Test
+    public void test_read() {
+        final ByteText text = Factory.createText(new byte[]{'<', 'p', (byte) 0xFF}, Charset.forName("windows-1251"));
+        assertEquals(3, text.getLength());
+        assertEquals('<', text.read(0));
+        assertEquals('\u044f', text.read(2));
+        assertEquals(0xFF, text.readByte(2));
+        assertEquals(Text.END, text.read(3));
+        assertEquals(Text.END, text.readByte(3));
+        assertEquals("p\u044f", text.subSequence(1, 3).toString());
+        assertEquals(Charset.forName("windows-1251"), text.getCharset());
+    }
+
+    @Test
+    public void test_buffer() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.put("a<p>text".getBytes(Charsets.US_ASCII));
+        buffer.position(1);
+        buffer.limit(7);
+        final ByteText text = Factory.createText(buffer, Charsets.US_ASCII);
+        assertEquals(6, text.getLength());
+        final char[] symbols = new char[8];
+        assertEquals(6, text.read(0, symbols, 1, 7));
+        assertEquals("<p>tex", new String(symbols, 1, 6));
+    }
+
+    @Test
+    public void test_find() {
+        final ByteText text = Factory.createText("ab<p>text</p>".getBytes(Charsets.US_ASCII), Charsets.US_ASCII);
+        assertEquals(2, text.find(0, '<', '>'));
+        assertEquals(4, text.find(3, '<', '>'));
+        assertEquals(9, text.find(5, '<', '/'));
+        assertEquals(-1, text.find(13, '<', '>'));
+        assertEquals(-1, text.find(0, '\u044f', '\u044e'));
+        assertEquals(5, text.find(0, 't', '\u044e'));
+    }
+}
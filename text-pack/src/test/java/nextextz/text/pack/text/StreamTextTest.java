@@ -0,0 +1,180 @@
+package nextextz.text.pack.text;
+
+import com.google.common.collect.Lists;
+import nextextz.text.pack.lexer.HtmlLexer;
+import nextextz.text.pack.lexer.HtmlLexerHandler;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+public class StreamTextTest {
+    @Test(expected = NullPointerException.class)
+    public void test_null() {
+        new StreamText(null);
+    }
+
+    @Test
+    public void test_read() {
+        final String value = "<p>text</p>";
+        final StreamText text = new StreamText(new StringReader(value), 2);
+        for (int i = 0; i < value.length(); i++) {
+            assertEquals(value.charAt(i), text.read(i));
+        }
+        assertEquals(Text.END, text.read(value.length()));
+        assertEquals(value.length(), text.getLength());
+        assertEquals("text", text.subSequence(3, 7).toString());
+    }
+
+    @Test
+    public void test_release() {
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            value.append("<p>").append(i % 10).append("</p>");
+        }
+        final StreamText text = new StreamText(new StringReader(value.toString()), 4);
+        for (int i = 0; i < value.length(); i++) {
+            assertEquals(value.charAt(i), text.read(i));
+            text.release(i - 3);
+        }
+        assertTrue(text.getCapacity() <= 8);
+    }
+
+    @Test
+    public void test_sub_sequence() {
+        final StreamText text = new StreamText(new StringReader("<p>text</p>"), 2);
+        assertEquals("<p", text.subSequence(0, 2).toString());
+        assertEquals(2, text.getCapacity());
+        assertEquals("", text.subSequence(11, 11).toString());
+        text.release(3);
+        assertEquals("text", text.subSequence(3, 7).toString());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_sub_sequence_out_of_text() {
+        new StreamText(new StringReader("<p>text</p>"), 2).subSequence(3, 12);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_sub_sequence_released() {
+        final StreamText text = new StreamText(new StringReader("<p>text</p>"), 2);
+        text.read(5);
+        text.release(4);
+        text.subSequence(3, 7);
+    }
+
+    @Test
+    public void test_lexer_values() {
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            value.append("<p class=\"c\">").append(i).append("</p>");
+        }
+        final StreamText text = new StreamText(new StringReader(value.toString()));
+        final StringBuilder test = new StringBuilder();
+        final HtmlLexer lexer = new HtmlLexer(text, new HtmlLexerHandler() {
+            @Override
+            public void handle(HtmlLexer.Token token) {
+                test.append(token.getValue());
+            }
+        });
+        while (test.length() < value.length()) {
+            lexer.execute();
+        }
+        assertEquals(value.toString(), test.toString());
+        assertEquals(StreamText.DEFAULT_CAPACITY, text.getCapacity());
+    }
+
+    @Test
+    public void test_lexer_max_token_size() {
+        final StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            script.append("var s = 'a</b>' + \"c\"; /* </d> */ // </e>\n");
+        }
+        final String value = "<p>text</p><script>" + script + "</script><!-- " + script + "-->";
+        final StreamText text = new StreamText(new StringReader(value));
+        final StringBuilder test = new StringBuilder();
+        final List<HtmlLexer.TokenType> types = Lists.newArrayList();
+        final HtmlLexer lexer = new HtmlLexer(text, new HtmlLexer.Options().setMaxTokenSize(1000).setHandler(
+                new HtmlLexerHandler() {
+                    @Override
+                    public void handle(HtmlLexer.Token token) {
+                        assertTrue(token.getLength() <= 1000);
+                        test.append(token.getValue());
+                        types.add(token.getType());
+                    }
+                }));
+        do {
+            lexer.execute();
+        } while (types.get(types.size() - 1) != HtmlLexer.TokenType.EMPTY);
+        assertEquals(value.replace("-->", ">"), test.toString());
+        assertEquals(StreamText.DEFAULT_CAPACITY, text.getCapacity());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_read_released() {
+        final StreamText text = new StreamText(new StringReader("<p>text</p>"), 2);
+        text.read(5);
+        text.release(4);
+        text.read(6);
+        text.read(0);
+    }
+
+    @Test
+    public void test_symbol_provider() {
+        final SymbolProvider provider = new StreamSymbolProvider(new StringReader("<p>"), 2);
+        final StringBuilder result = new StringBuilder();
+        while (provider.hasMore()) {
+            result.append((char) provider.read());
+            provider.move();
+        }
+        assertEquals("<p>", result.toString());
+        assertEquals(3, provider.getPosition());
+        assertFalse(provider.hasMore());
+        assertNull(provider.getSymbol());
+    }
+
+    @Test
+    public void test_symbol_provider_lookahead() {
+        final StreamSymbolProvider provider = new StreamSymbolProvider(new StringReader("<!-- text --><p>"), 2);
+        assertEquals('<', provider.peek(0));
+        assertEquals('-', provider.peek(3));
+        provider.skip(5);
+        assertEquals('t', provider.read());
+        provider.mark();
+        provider.skip(5);
+        assertEquals('-', provider.read());
+        assertEquals('>', provider.peek(2));
+        assertEquals(8, provider.getCapacity());
+        provider.reset();
+        assertEquals('t', provider.read());
+        assertEquals(5, provider.getPosition());
+        provider.skip(11);
+        assertEquals(SymbolProvider.END, provider.read());
+        assertEquals(SymbolProvider.END, provider.peek(10));
+    }
+
+    @Test
+    public void test_symbol_provider_window() {
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            value.append("<p>").append(i).append("</p>");
+        }
+        final StreamSymbolProvider provider = new StreamSymbolProvider(new StringReader(value.toString()), 16);
+        while (provider.hasMore()) {
+            assertEquals(value.charAt((int) provider.getPosition()), provider.read());
+            assertEquals(value.charAt((int) provider.getPosition()), provider.peek(0));
+            provider.move();
+        }
+        assertEquals(16, provider.getCapacity());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_symbol_provider_reset_without_mark() {
+        new StreamSymbolProvider(new StringReader("<p>")).reset();
+    }
+}
@@ -0,0 +1,97 @@
+package nextextz.text.pack.text;
+
+import org.junit.Test;
+
+import java.nio.CharBuffer;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+public class TextLightTest {
+    @Test(expected = NullPointerException.class)
+    public void test_null() {
+        new TextLight(null);
+    }
+
+    @Test
+    public void test_read() {
+        final Text text = new TextLight("a\u044f");
+        assertEquals('a', text.read(0));
+        assertEquals('\u044f', text.read(1));
+        assertEquals(Text.END, text.read(2));
+        assertEquals(Text.END, text.read(-1));
+        assertEquals(2, text.getLength());
+    }
+
+    @Test
+    public void test_symbol() {
+        final Text text = new TextLight("\u044f");
+        assertEquals(Character.valueOf('\u044f'), text.getSymbol(0));
+        assertNull(text.getSymbol(1));
+    }
+
+    @Test
+    public void test_symbol_provider() {
+        final SymbolProvider provider = new SymbolProviderLight("\u044f");
+        assertEquals(true, provider.hasMore());
+        assertEquals('\u044f', provider.read());
+        provider.move();
+        assertEquals(false, provider.hasMore());
+        assertEquals(SymbolProvider.END, provider.read());
+        assertNull(provider.getSymbol());
+    }
+
+    @Test
+    public void test_symbol_provider_lookahead() {
+        final SymbolProvider provider = new SymbolProviderLight("<!-- a -->");
+        assertEquals('<', provider.peek(0));
+        assertEquals('-', provider.peek(2));
+        assertEquals(SymbolProvider.END, provider.peek(10));
+        provider.skip(5);
+        provider.mark();
+        assertEquals('a', provider.read());
+        provider.skip(2);
+        assertEquals('-', provider.read());
+        provider.reset();
+        assertEquals(5, provider.getPosition());
+        assertEquals('a', provider.read());
+    }
+
+    @Test
+    public void test_read_buffer() {
+        final Text text = new TextLight("<p>text</p>");
+        final char[] buffer = new char[6];
+        assertEquals(4, text.read(7, buffer, 2, 4));
+        assertEquals("</p>", new String(buffer, 2, 4));
+        assertEquals(4, text.read(7, buffer, 0, 6));
+        assertEquals(Text.END, text.read(11, buffer, 0, 6));
+        assertEquals(0, text.read(0, buffer, 0, 0));
+    }
+
+    @Test
+    public void test_read_char_buffer() {
+        final Text text = new TextLight("<p>text</p>");
+        final CharBuffer buffer = CharBuffer.allocate(4);
+        assertEquals(4, text.read(3, buffer));
+        buffer.flip();
+        assertEquals("text", buffer.toString());
+        buffer.clear();
+        assertEquals(Text.END, text.read(11, buffer));
+    }
+
+    @Test
+    public void test_sub_sequence() {
+        final Text text = new TextLight("<p>text</p>");
+        final CharSequence sequence = text.subSequence(3, 7);
+        assertEquals(4, sequence.length());
+        assertEquals('x', sequence.charAt(2));
+        assertEquals("text", sequence.toString());
+        assertEquals("ex", sequence.subSequence(1, 3).toString());
+        assertEquals("", text.subSequence(11, 11).toString());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_sub_sequence_out_of_text() {
+        new TextLight("<p>").subSequence(1, 4);
+    }
+}
@@ -0,0 +1,138 @@
+package nextextz.text.pack.text;
+
+import com.google.common.base.Charsets;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+public class Utf8TextTest {
+    private static final String VALUE = "<p>a\u044f\u4e2d\u1f600</p>";
+
+    @Test(expected = NullPointerException.class)
+    public void test_null() {
+        new Utf8Text(null);
+    }
+
+    @Test
+    public void test_read() {
+        final Text text = createText(VALUE, 2);
+        for (int i = 0; i < VALUE.length(); i++) {
+            assertEquals(VALUE.charAt(i), text.read(i));
+        }
+        assertEquals(Text.END, text.read(VALUE.length()));
+        assertEquals(Text.END, text.read(-1));
+        assertEquals(VALUE.length(), text.getLength());
+    }
+
+    @Test
+    public void test_random_read() {
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            value.append(VALUE);
+        }
+        final Text text = createText(value.toString(), 16);
+        final Random random = new Random(1);
+        for (int i = 0; i < 5000; i++) {
+            final int index = random.nextInt(value.length());
+            assertEquals(value.charAt(index), text.read(index));
+        }
+        assertEquals(value.length(), text.getLength());
+    }
+
+    @Test
+    public void test_bulk_read() {
+        final Text text = createText(VALUE, 4);
+        final char[] buffer = new char[VALUE.length()];
+        for (int i = 0; i < VALUE.length(); i++) {
+            for (int j = 1; j <= VALUE.length() - i; j++) {
+                assertEquals(j, text.read(i, buffer, 0, j));
+                assertEquals(VALUE.substring(i, i + j), new String(buffer, 0, j));
+            }
+        }
+        assertEquals(Text.END, text.read(VALUE.length(), buffer, 0, 1));
+        assertEquals("\u4e2d\u1f600", text.subSequence(5, 8).toString());
+    }
+
+    @Test
+    public void test_malformed() {
+        final byte[] value = {'a', (byte) 0xD1, 'b', (byte) 0xE4, (byte) 0xB8, (byte) 0xC0, (byte) 0xF0};
+        final Text text = Factory.createUtf8Text(value);
+        assertEquals("a\ufffdb\ufffd\ufffd\ufffd\ufffd", text.subSequence(0, text.getLength()).toString());
+    }
+
+    @Test
+    public void test_sub_sequence() {
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            value.append(VALUE);
+        }
+        final CountingBytes bytes = new CountingBytes(value.toString());
+        final Text text = new Utf8Text(bytes, 16);
+        assertEquals('<', text.read(VALUE.length()));
+        final CharSequence sequence = text.subSequence(5, 8);
+        assertTrue(bytes.maxIndex < 100);
+        assertEquals('p', text.read(VALUE.length() + 1));
+        assertEquals("\u4e2d\u1f600", sequence.toString());
+        assertEquals(value.substring(1000, 1010), text.subSequence(1000, 1010).toString());
+        assertEquals(value.length(), text.getLength());
+    }
+
+    @Test
+    public void test_forward_read() {
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            value.append(VALUE);
+        }
+        final CountingBytes bytes = new CountingBytes(value.toString());
+        final Text text = new Utf8Text(bytes, 16);
+        assertEquals(value.charAt(value.length() - 1), text.read(value.length() - 1));
+        assertEquals('<', text.read(0));
+        bytes.count = 0;
+        assertEquals(value.charAt(value.length() - 2), text.read(value.length() - 2));
+        assertEquals(value.charAt(value.length() / 2), text.read(value.length() / 2));
+        assertTrue(bytes.count < 100);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_sub_sequence_out_of_text() {
+        createText(VALUE, 2).subSequence(5, VALUE.length() + 1);
+    }
+
+    /**
+     * Counts read bytes and keeps the max index.
+     */
+    private static class CountingBytes implements Bytes {
+        private final Bytes bytes;
+        private long maxIndex = -1;
+        private long count;
+
+        CountingBytes(String value) {
+            bytes = new BufferBytes(ByteBuffer.wrap(value.getBytes(Charsets.UTF_8)));
+        }
+
+        @Override
+        public long size() {
+            return bytes.size();
+        }
+
+        @Override
+        public byte get(long index) {
+            maxIndex = Math.max(maxIndex, index);
+            count++;
+            return bytes.get(index);
+        }
+
+        @Override
+        public long indexOf(long index, byte first, byte second) {
+            return bytes.indexOf(index, first, second);
+        }
+    }
+
+    private static Text createText(String value, int interval) {
+        return new Utf8Text(new BufferBytes(ByteBuffer.wrap(value.getBytes(Charsets.UTF_8))), interval);
+    }
+}